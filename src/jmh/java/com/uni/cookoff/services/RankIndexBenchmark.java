@@ -0,0 +1,77 @@
+package com.uni.cookoff.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /leaderboard/my-rank: the old linear scan over the score-ordered user list against
+ * {@link RankIndex}. Scores are drawn from a small range so ties are common, as in a contest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RankIndexBenchmark {
+
+    private record Participant(String id, double score) {
+    }
+
+    @Param({"10000", "100000"})
+    int participants;
+
+    private final RankIndex index = new RankIndex();
+    private final Random random = new Random(42);
+    private List<Participant> sorted;
+    private String[] ids;
+
+    @Setup
+    public void setup() {
+        ids = new String[participants];
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < participants; i++) {
+            ids[i] = "user-" + i;
+            scores.put(ids[i], (double) random.nextInt(2000));
+        }
+        index.replaceAll(scores);
+
+        sorted = new ArrayList<>(participants);
+        scores.forEach((id, score) -> sorted.add(new Participant(id, score)));
+        sorted.sort(Comparator.comparingDouble(Participant::score).reversed());
+    }
+
+    @Benchmark
+    public int linearScan() {
+        String id = ids[random.nextInt(participants)];
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i).id().equals(id)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    @Benchmark
+    public int rankOf() {
+        return index.rankOf(ids[random.nextInt(participants)]);
+    }
+
+    @Benchmark
+    public int updateThenRank() {
+        String id = ids[random.nextInt(participants)];
+        index.update(id, random.nextInt(2000));
+        return index.rankOf(id);
+    }
+}
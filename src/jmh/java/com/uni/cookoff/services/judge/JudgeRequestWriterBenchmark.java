@@ -0,0 +1,106 @@
+package com.uni.cookoff.services.judge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uni.cookoff.dto.request.BatchSubmissionRequest;
+import com.uni.cookoff.dto.request.JudgeSubmission;
+import com.uni.cookoff.models.Testcase;
+import com.uni.cookoff.services.BlobStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the body of one /submissions/batch call for a question's test cases.
+ * Run with {@code ./gradlew jmh} and compare gc.alloc.rate.norm between the Jackson
+ * baseline and the streaming writer with pre-encoded fragments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JudgeRequestWriterBenchmark {
+
+    @Param({"10", "50"})
+    int testCases;
+
+    @Param({"1024", "16384"})
+    int payloadSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JudgeRequestWriter writer = new JudgeRequestWriter(null);
+    private final JudgePayloadCache payloadCache = new JudgePayloadCache(64L * 1024 * 1024);
+
+    private List<JudgeSubmission> plain;
+    private List<JudgeSubmission> preEncoded;
+
+    @Setup
+    public void setup() {
+        String source = "import sys\n\tfor line in sys.stdin:\n\t\tprint(\"\" + line.strip()[::-1])\n".repeat(20);
+        plain = new ArrayList<>(testCases);
+        preEncoded = new ArrayList<>(testCases);
+        for (int i = 0; i < testCases; i++) {
+            Testcase testCase = Testcase.builder()
+                    .id("tc-" + i)
+                    .input(payload(i, payloadSize))
+                    .expectedOutput(payload(i + 1, payloadSize))
+                    .runtime(2.0)
+                    .build();
+            testCase.setInputHash(BlobStore.sha256(testCase.getInput().getBytes(StandardCharsets.UTF_8)));
+            testCase.setExpectedOutputHash(BlobStore.sha256(testCase.getExpectedOutput().getBytes(StandardCharsets.UTF_8)));
+
+            plain.add(submission(source, testCase).build());
+            preEncoded.add(submission(source, testCase)
+                    .encodedPayload(payloadCache.fragmentFor(testCase))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public String jackson() throws IOException {
+        return objectMapper.writeValueAsString(new BatchSubmissionRequest(plain));
+    }
+
+    @Benchmark
+    public OutputStream streaming() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        writer.writeBatch(plain, out);
+        return out;
+    }
+
+    @Benchmark
+    public OutputStream streamingPreEncoded() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        writer.writeBatch(preEncoded, out);
+        return out;
+    }
+
+    private static JudgeSubmission.JudgeSubmissionBuilder submission(String source, Testcase testCase) {
+        return JudgeSubmission.builder()
+                .languageId(71)
+                .sourceCode(source)
+                .input(testCase.getInput())
+                .output(testCase.getExpectedOutput())
+                .runtime(BigDecimal.valueOf(testCase.getRuntime()))
+                .callback("http://localhost:8080/callback");
+    }
+
+    private static String payload(int seed, int size) {
+        StringBuilder sb = new StringBuilder(size);
+        while (sb.length() < size) {
+            sb.append(seed++).append(' ').append("\"q\"\t").append('\n');
+        }
+        return sb.substring(0, size);
+    }
+}
@@ -0,0 +1,16 @@
+package com.uni.cookoff.Exception;
+
+public class JudgeBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public JudgeBusyException(String message, long retryAfterSeconds)
+    {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
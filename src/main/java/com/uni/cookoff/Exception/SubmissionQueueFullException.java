@@ -0,0 +1,16 @@
+package com.uni.cookoff.Exception;
+
+public class SubmissionQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SubmissionQueueFullException(String message, long retryAfterSeconds)
+    {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,6 +1,10 @@
 package com.uni.cookoff.config;
 
+import com.uni.cookoff.services.RateLimitPolicy;
+import com.uni.cookoff.services.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -24,8 +28,14 @@ public class AppConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+    @Value("${ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   RateLimiter rateLimiter,
+                                                   RateLimitPolicy rateLimitPolicy,
+                                                   MeterRegistry meterRegistry) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/signup", "/login").permitAll()
@@ -39,6 +49,10 @@ public class AppConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()));
 
+        if (rateLimitEnabled) {
+            http.addFilterAfter(new RateLimitFilter(rateLimiter, rateLimitPolicy, meterRegistry), JwtValidator.class);
+        }
+
         return http.build();
     }
 
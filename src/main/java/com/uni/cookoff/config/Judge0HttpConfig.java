@@ -0,0 +1,83 @@
+package com.uni.cookoff.config;
+
+import com.uni.cookoff.services.judge.Judge0Guard;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP transport used only for Judge0 calls.
+ * Connections are pooled and kept alive, so contest traffic reuses sockets and TLS sessions
+ * instead of opening a new connection per request. The template comes from Boot's
+ * RestTemplateBuilder, so it serializes with the application ObjectMapper and every call is
+ * timed under the http.client.requests metric.
+ */
+@Configuration
+public class Judge0HttpConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient judge0HttpClient(
+            @Value("${judge0.http.max-connections:200}") int maxConnections,
+            @Value("${judge0.http.max-connections-per-route:100}") int maxConnectionsPerRoute,
+            @Value("${judge0.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${judge0.http.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${judge0.http.pool-timeout-ms:1000}") long poolTimeoutMs,
+            @Value("${judge0.http.idle-timeout-ms:30000}") long idleTimeoutMs) {
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeoutMs))
+                .build();
+    }
+
+    @Bean
+    public Judge0Guard.Settings judge0GuardSettings(
+            @Value("${judge0.guard.initial-limit:20}") int initialLimit,
+            @Value("${judge0.guard.min-limit:2}") int minLimit,
+            @Value("${judge0.guard.max-limit:200}") int maxLimit,
+            @Value("${judge0.guard.decrease:0.75}") double decrease,
+            @Value("${judge0.guard.latency-threshold-ms:10000}") long latencyThresholdMs,
+            @Value("${judge0.guard.acquire-timeout-ms:200}") long acquireTimeoutMs,
+            @Value("${judge0.guard.window-size:50}") int windowSize,
+            @Value("${judge0.guard.min-calls:20}") int minCalls,
+            @Value("${judge0.guard.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${judge0.guard.open-ms:10000}") long openMs,
+            @Value("${judge0.guard.half-open-probes:3}") int halfOpenProbes) {
+        return new Judge0Guard.Settings(initialLimit, minLimit, maxLimit, decrease, latencyThresholdMs,
+                acquireTimeoutMs, windowSize, minCalls, failureRateThreshold, openMs, halfOpenProbes);
+    }
+
+    @Bean
+    public RestTemplate judge0RestTemplate(RestTemplateBuilder builder, CloseableHttpClient judge0HttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(judge0HttpClient))
+                .build();
+    }
+}
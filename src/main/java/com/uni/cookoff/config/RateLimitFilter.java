@@ -0,0 +1,102 @@
+package com.uni.cookoff.config;
+
+import com.uni.cookoff.services.RateLimitPolicy;
+import com.uni.cookoff.services.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Token-bucket limits on the endpoints that create Judge0 executions.
+ * Every request spends a token from its client IP's bucket and, once the JWT has been
+ * validated, from the user's bucket; the IP token is given back if the user's bucket is empty.
+ * Runs after {@link JwtValidator} so the user is known. Behind a proxy the client IP comes from
+ * X-Forwarded-For via {@code server.forward-headers-strategy}.
+ * If the limiter itself fails the request is let through.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            "/runcode", RateLimitPolicy.RUNCODE,
+            "/runcode/stream", RateLimitPolicy.RUNCODE,
+            "/submit", RateLimitPolicy.SUBMIT);
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitPolicy rateLimitPolicy;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitPolicy rateLimitPolicy, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.rateLimitPolicy = rateLimitPolicy;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !ENDPOINTS.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String endpoint = ENDPOINTS.get(request.getServletPath());
+        RateLimitPolicy.EndpointLimits limits = rateLimitPolicy.limitsFor(endpoint);
+        String prefix = endpoint + ":" + limits.round() + ":";
+
+        String scope = "ip";
+        String ipKey = prefix + "ip:" + request.getRemoteAddr();
+        long waitMs = acquire(ipKey, limits.ip());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (waitMs == 0 && authentication != null) {
+            scope = "user";
+            waitMs = acquire(prefix + "user:" + authentication.getName(), limits.user());
+            if (waitMs > 0) {
+                release(ipKey, limits.ip());
+            }
+        }
+
+        if (waitMs > 0) {
+            Counter.builder("cookoff.ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("endpoint", endpoint)
+                    .tag("scope", scope)
+                    .register(meterRegistry)
+                    .increment();
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+            response.getWriter().write("Too many requests");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private long acquire(String key, RateLimitPolicy.Limit limit) {
+        try {
+            return rateLimiter.tryAcquire(key, limit.burst(), limit.tokensPerSecond());
+        } catch (Exception e) {
+            log.warn("Rate limiter unavailable, allowing request: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void release(String key, RateLimitPolicy.Limit limit) {
+        try {
+            rateLimiter.release(key, limit.burst());
+        } catch (Exception e) {
+            log.warn("Could not return rate limit token: {}", e.getMessage());
+        }
+    }
+}
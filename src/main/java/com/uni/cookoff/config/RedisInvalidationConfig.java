@@ -0,0 +1,27 @@
+package com.uni.cookoff.config;
+
+import com.uni.cookoff.services.TestcaseCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(name = "testcases.cache.redis-invalidation", havingValue = "true")
+public class RedisInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer testcaseInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                      TestcaseCache testcaseCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> testcaseCache.onInvalidationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TestcaseCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,27 @@
+package com.uni.cookoff.config;
+
+import com.uni.cookoff.services.SubmissionStatusBoard;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(name = "submission.status.store", havingValue = "redis")
+public class RedisStatusConfig {
+
+    @Bean
+    public RedisMessageListenerContainer submissionStatusListener(RedisConnectionFactory connectionFactory,
+                                                                  SubmissionStatusBoard submissionStatusBoard) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> submissionStatusBoard.onStatusMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(SubmissionStatusBoard.CHANNEL));
+        return container;
+    }
+}
@@ -6,6 +6,7 @@ import com.uni.cookoff.dto.request.LoginRequest;
 import com.uni.cookoff.dto.response.AuthResponse;
 import com.uni.cookoff.models.User;
 import com.uni.cookoff.repositories.UserRepository;
+import com.uni.cookoff.services.LeaderboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +34,8 @@ public class AuthController {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final LeaderboardService leaderboardService;
+
     @PostMapping("/signup")
     public ResponseEntity<AuthResponse> createUserHandler(@RequestBody User user) throws UserException
     {
@@ -66,6 +69,7 @@ public class AuthController {
         createdUser.setRoundQualified(roundQualified);
 
         User savedUser = userRepository.save(createdUser);
+        leaderboardService.upsert(savedUser);
 
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(savedUser.getEmail(),savedUser.getPassword());
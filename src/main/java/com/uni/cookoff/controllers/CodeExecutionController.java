@@ -1,18 +1,30 @@
 package com.uni.cookoff.controllers;
 
+import com.uni.cookoff.Exception.JudgeBusyException;
+import com.uni.cookoff.Exception.SubmissionQueueFullException;
 import com.uni.cookoff.dto.request.SubmissionRequest;
 import com.uni.cookoff.dto.response.JudgeCallback;
+import com.uni.cookoff.dto.response.JudgeResponse;
 import com.uni.cookoff.dto.response.RunCodeResponse;
 import com.uni.cookoff.dto.response.SubmissionResponse;
+import com.uni.cookoff.services.CallbackIngestQueue;
 import com.uni.cookoff.services.CodeExecutionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/")
 @RequiredArgsConstructor
@@ -20,19 +32,86 @@ import jakarta.validation.Valid;
 public class CodeExecutionController {
 
     private final CodeExecutionService codeExecutionService;
+    private final CallbackIngestQueue callbackIngestQueue;
 
+    @Value("${judge0.run.stream-timeout-ms:120000}")
+    private long streamTimeoutMs;
 
     @PostMapping("/runcode")
     public ResponseEntity<RunCodeResponse> runCode(@Valid @RequestBody SubmissionRequest request) {
         try {
             RunCodeResponse response = codeExecutionService.runCode(request);
             return ResponseEntity.ok(response);
+        } catch (JudgeBusyException e) {
+            return judgeBusy(e);
         } catch (Exception e) {
             log.error("Error running code: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Same as /runcode, but streamed as Server-Sent Events: one "result" event per test case
+     * as it completes (event id = test case index), then a "summary" event, or an "error" event.
+     * The request thread is released immediately; the run continues on a virtual thread,
+     * which is cancelled once the stream ends for any reason: completion, timeout or a disconnect.
+     */
+    @PostMapping(value = "/runcode/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> runCodeStream(@Valid @RequestBody SubmissionRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        try {
+            Thread run = codeExecutionService.runCodeStreaming(request, new CodeExecutionService.RunListener() {
+                @Override
+                public void onResult(int index, JudgeResponse response) {
+                    send(emitter, SseEmitter.event().name("result").id(String.valueOf(index)).data(response));
+                }
+
+                @Override
+                public void onComplete(RunCodeResponse summary) {
+                    if (send(emitter, SseEmitter.event().name("summary").data(summary))) {
+                        emitter.complete();
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    if (send(emitter, SseEmitter.event().name("error").data(Map.of("message", String.valueOf(e.getMessage()))))) {
+                        emitter.complete();
+                    }
+                }
+            });
+            // Nobody is left to report to, so stop spending judge capacity on the run
+            emitter.onTimeout(run::interrupt);
+            emitter.onError(e -> run.interrupt());
+            emitter.onCompletion(run::interrupt);
+            return ResponseEntity.ok(emitter);
+        } catch (JudgeBusyException e) {
+            return judgeBusy(e);
+        } catch (Exception e) {
+            log.error("Error running code: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // SseEmitter is not safe for concurrent sends, and parallel runs report from several threads
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        synchronized (emitter) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException e) {
+                // The client went away; ending the stream cancels the run
+                log.debug("Could not send run event: {}", e.getMessage());
+                emitter.completeWithError(e);
+                return false;
+            } catch (IllegalStateException e) {
+                // Already completed or timed out, and the run has been cancelled
+                log.debug("Could not send run event: {}", e.getMessage());
+                return false;
+            }
+        }
+    }
+
     /**
      * Submit code for evaluation (creates submission record)
      */
@@ -48,6 +127,13 @@ public class CodeExecutionController {
 
             SubmissionResponse response = codeExecutionService.submitCode(request, userId.substring(17,53));
             return ResponseEntity.ok(response);
+        } catch (SubmissionQueueFullException e) {
+            log.warn("Rejected submission: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        } catch (JudgeBusyException e) {
+            return judgeBusy(e);
         } catch (Exception e) {
             log.error("Error submitting code: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
@@ -55,7 +141,7 @@ public class CodeExecutionController {
     }
 
     /**
-     * Process callback from Judge0
+     * Accept a callback from Judge0; it is written to the database by the next flush
      */
     @PutMapping("/callback")
     public ResponseEntity<Void> processCallback(
@@ -65,11 +151,18 @@ public class CodeExecutionController {
         try {
             callback.setSubmissionId(submissionId);
             callback.setTestCaseId(testCaseId);
-            codeExecutionService.processCallback(callback);
+            callbackIngestQueue.enqueue(callback);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Error processing callback: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
         }
     }
+
+    private <T> ResponseEntity<T> judgeBusy(JudgeBusyException e) {
+        log.warn("Judge busy: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
 }
@@ -1,14 +1,19 @@
 package com.uni.cookoff.controllers;
 
+import com.uni.cookoff.dto.response.LeaderboardPage;
 import com.uni.cookoff.models.User;
+import com.uni.cookoff.services.LeaderboardService;
+import com.uni.cookoff.services.LeaderboardSnapshots;
 import com.uni.cookoff.services.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/leaderboard")
@@ -16,33 +21,77 @@ import java.util.stream.Collectors;
 public class LeaderboardController {
 
     private final UserService userService;
+    private final LeaderboardService leaderboardService;
+    private final LeaderboardSnapshots leaderboardSnapshots;
 
     @GetMapping
-    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard() {
-        List<User> topUsers = userService.findTopUsersByScore();
-        List<LeaderboardEntry> leaderboard = topUsers.stream()
-                .map(user -> new LeaderboardEntry(
-                    user.getName(),
-                    user.getRegNo(),
-                    user.getScore(),
-                    user.getRoundQualified()
-                ))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(leaderboard);
+    public ResponseEntity<?> getLeaderboard(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (cursor == null && size == null) {
+            return snapshot(null, ifNoneMatch, acceptEncoding);
+        }
+        try {
+            return ResponseEntity.ok(leaderboardService.page(null, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/round/{roundNumber}")
-    public ResponseEntity<List<LeaderboardEntry>> getLeaderboardByRound(@PathVariable int roundNumber) {
-        List<User> qualifiedUsers = userService.findQualifiedUsersForRound(roundNumber);
-        List<LeaderboardEntry> leaderboard = qualifiedUsers.stream()
-                .map(user -> new LeaderboardEntry(
-                    user.getName(),
-                    user.getRegNo(),
-                    user.getScore(),
-                    user.getRoundQualified()
-                ))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(leaderboard);
+    public ResponseEntity<?> getLeaderboardByRound(@PathVariable int roundNumber,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (cursor == null && size == null) {
+            return snapshot(roundNumber, ifNoneMatch, acceptEncoding);
+        }
+        try {
+            return ResponseEntity.ok(leaderboardService.page(roundNumber, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * The first page of a leaderboard from its pre-serialized snapshot: a 304 when the client
+     * already has these bytes, otherwise the stored bytes, gzipped if the client accepts it.
+     */
+    private ResponseEntity<?> snapshot(Integer round, String ifNoneMatch, String acceptEncoding) {
+        LeaderboardSnapshots.Snapshot snapshot = leaderboardSnapshots.get(round);
+        boolean gzipped = snapshot.gzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzipped ? snapshot.gzipEtag() : snapshot.etag();
+
+        if (snapshot.matches(ifNoneMatch)) {
+            // A 304 must repeat the headers a 200 would have sent, Vary included
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzipped ? snapshot.gzipped() : snapshot.json());
+    }
+
+    @GetMapping("/around-me")
+    public ResponseEntity<LeaderboardPage> getLeaderboardAroundMe(Authentication authentication,
+                                                                  @RequestParam(required = false) Integer before,
+                                                                  @RequestParam(required = false) Integer after) {
+        Optional<User> userOpt = userService.findByEmail(authentication.getName());
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(leaderboardService.around(userOpt.get().getId(), before, after));
     }
 
     @GetMapping("/my-rank")
@@ -56,23 +105,15 @@ public class LeaderboardController {
             }
 
             User user = userOpt.get();
-            List<User> allUsers = userService.findTopUsersByScore();
-
-            int rank = 0;
-            for (int i = 0; i < allUsers.size(); i++) {
-                if (allUsers.get(i).getId().equals(user.getId())) {
-                    rank = i + 1;
-                    break;
-                }
-            }
+            LeaderboardService.Rank rank = leaderboardService.rankOf(user.getId());
 
             UserRankInfo rankInfo = new UserRankInfo(
                 user.getName(),
                 user.getRegNo(),
                 user.getScore(),
                 user.getRoundQualified(),
-                rank,
-                allUsers.size()
+                rank.rank(),
+                rank.total()
             );
 
             return ResponseEntity.ok(rankInfo);
@@ -81,21 +122,7 @@ public class LeaderboardController {
         }
     }
 
-    // Inner classes for response DTOs
-    public static class LeaderboardEntry {
-        public String name;
-        public String regNo;
-        public double score;
-        public int roundQualified;
-
-        public LeaderboardEntry(String name, String regNo, double score, int roundQualified) {
-            this.name = name;
-            this.regNo = regNo;
-            this.score = score;
-            this.roundQualified = roundQualified;
-        }
-    }
-
+    // Inner class for the response DTO
     public static class UserRankInfo {
         public String name;
         public String regNo;
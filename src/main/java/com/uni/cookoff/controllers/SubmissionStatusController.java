@@ -0,0 +1,127 @@
+package com.uni.cookoff.controllers;
+
+import com.uni.cookoff.dto.response.SubmissionStatusResponse;
+import com.uni.cookoff.services.SubmissionStatusBoard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Status of a single submission, served from {@link SubmissionStatusBoard} instead of the
+ * user's whole submission history.
+ */
+@RestController
+@RequestMapping("/submissions")
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionStatusController {
+
+    private final SubmissionStatusBoard statusBoard;
+
+    @Value("${submission.status.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @Value("${submission.status.stream-timeout-ms:600000}")
+    private long streamTimeoutMs;
+
+    /**
+     * Returns the current status, or with {@code waitFor} holds the request (without a thread)
+     * until the submission reaches that status, a final status, or the timeout, then returns whatever it is.
+     */
+    @GetMapping("/{id}/status")
+    public DeferredResult<ResponseEntity<SubmissionStatusResponse>> getStatus(
+            @PathVariable String id,
+            @RequestParam(required = false) String waitFor,
+            @RequestParam(defaultValue = "30000") long timeout,
+            Authentication authentication) {
+
+        long waitMs = Math.max(0, Math.min(timeout, maxWaitMs));
+        DeferredResult<ResponseEntity<SubmissionStatusResponse>> result =
+                new DeferredResult<>(waitMs, () -> ResponseEntity.ok(statusBoard.get(id)));
+
+        SubmissionStatusResponse current = statusBoard.get(id);
+        ResponseEntity<SubmissionStatusResponse> denied = checkAccess(current, authentication);
+        if (denied != null) {
+            result.setResult(denied);
+            return result;
+        }
+        if (waitFor == null || waitFor.equalsIgnoreCase(current.getStatus()) || waitMs == 0
+                || SubmissionStatusBoard.isFinal(current.getStatus())) {
+            result.setResult(ResponseEntity.ok(current));
+            return result;
+        }
+
+        Runnable unwatch = statusBoard.watch(id, status -> {
+            if (waitFor.equalsIgnoreCase(status.getStatus()) || SubmissionStatusBoard.isFinal(status.getStatus())) {
+                result.setResult(ResponseEntity.ok(status));
+            }
+        });
+        result.onCompletion(unwatch);
+
+        // The status may have moved between the first read and registering the watcher
+        SubmissionStatusResponse latest = statusBoard.get(id);
+        if (waitFor.equalsIgnoreCase(latest.getStatus()) || SubmissionStatusBoard.isFinal(latest.getStatus())) {
+            result.setResult(ResponseEntity.ok(latest));
+        }
+        return result;
+    }
+
+    /**
+     * Server-Sent Events: the current status, then a "status" event on every change.
+     * The stream ends once the submission is COMPLETED or FAILED.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStatus(@PathVariable String id, Authentication authentication) {
+        SubmissionStatusResponse current = statusBoard.get(id);
+        ResponseEntity<SubmissionStatusResponse> denied = checkAccess(current, authentication);
+        if (denied != null) {
+            return ResponseEntity.status(denied.getStatusCode()).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Runnable unwatch = statusBoard.watch(id, status -> send(emitter, status));
+        emitter.onCompletion(unwatch);
+        emitter.onTimeout(unwatch);
+        emitter.onError(e -> unwatch.run());
+
+        send(emitter, statusBoard.get(id));
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void send(SseEmitter emitter, SubmissionStatusResponse status) {
+        synchronized (emitter) {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(status));
+                if (SubmissionStatusBoard.isFinal(status.getStatus())) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not send status event: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Users only see their own submissions; unknown and foreign ids look the same
+    private ResponseEntity<SubmissionStatusResponse> checkAccess(SubmissionStatusResponse status, Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String userId = authentication.getName().substring(17, 53);
+        if (status.getUserId() != null && !status.getUserId().equals(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return null;
+    }
+}
@@ -28,6 +28,10 @@ public class AdminContestController {
                 .roundNumber(request.getRoundNumber())
                 .isActive(request.isActive())
                 .maxParticipants(request.getMaxParticipants())
+                .submissionQueueCapacity(request.getSubmissionQueueCapacity())
+                .submissionQueuePerUser(request.getSubmissionQueuePerUser())
+                .runcodeRatePerMinute(request.getRuncodeRatePerMinute())
+                .submitRatePerMinute(request.getSubmitRatePerMinute())
                 .build();
 
         Contest savedContest = contestService.createContest(contest);
@@ -58,6 +62,10 @@ public class AdminContestController {
                     if (request.getRoundNumber() != null) contest.setRoundNumber(request.getRoundNumber());
                     if (request.getIsActive() != null) contest.setActive(request.getIsActive());
                     if (request.getMaxParticipants() != null) contest.setMaxParticipants(request.getMaxParticipants());
+                    if (request.getSubmissionQueueCapacity() != null) contest.setSubmissionQueueCapacity(request.getSubmissionQueueCapacity());
+                    if (request.getSubmissionQueuePerUser() != null) contest.setSubmissionQueuePerUser(request.getSubmissionQueuePerUser());
+                    if (request.getRuncodeRatePerMinute() != null) contest.setRuncodeRatePerMinute(request.getRuncodeRatePerMinute());
+                    if (request.getSubmitRatePerMinute() != null) contest.setSubmitRatePerMinute(request.getSubmitRatePerMinute());
 
                     Contest updated = contestService.updateContest(contest);
                     return ResponseEntity.ok(updated);
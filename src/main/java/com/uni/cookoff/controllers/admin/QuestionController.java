@@ -3,6 +3,8 @@ package com.uni.cookoff.controllers.admin;
 import com.uni.cookoff.dto.request.CreateQuestionRequest;
 import com.uni.cookoff.models.Question;
 import com.uni.cookoff.services.QuestionService;
+import com.uni.cookoff.services.checker.ExactChecker;
+import com.uni.cookoff.services.checker.OutputCheckService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,9 +15,13 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class QuestionController {
     private final QuestionService questionService;
+    private final OutputCheckService outputCheckService;
 
     @PostMapping
-    public ResponseEntity<Question> createQuestion(@RequestBody CreateQuestionRequest request) {
+    public ResponseEntity<?> createQuestion(@RequestBody CreateQuestionRequest request) {
+        if (!outputCheckService.isKnown(request.getChecker(), request.getCheckerName())) {
+            return ResponseEntity.badRequest().body("Unknown checker");
+        }
         Question question = Question.builder()
                 .id(UUID.randomUUID().toString())
                 .title(request.getTitle())
@@ -28,6 +34,10 @@ public class QuestionController {
                 .sampleTestInput(request.getSampleTestInput())
                 .sampleTestOutput(request.getSampleTestOutput())
                 .explanation(request.getExplanation())
+                .stopOnFirstFailure(request.isStopOnFirstFailure())
+                .checker(request.getChecker() != null ? request.getChecker() : ExactChecker.NAME)
+                .checkerEpsilon(request.getCheckerEpsilon())
+                .checkerName(request.getCheckerName())
                 .build();
         Question saved = questionService.saveQuestion(question);
         return ResponseEntity.ok(saved);
@@ -35,6 +45,11 @@ public class QuestionController {
 
     @PostMapping("/batch")
     public ResponseEntity<?> createQuestions(@RequestBody java.util.List<CreateQuestionRequest> requests) {
+        for (CreateQuestionRequest request : requests) {
+            if (!outputCheckService.isKnown(request.getChecker(), request.getCheckerName())) {
+                return ResponseEntity.badRequest().body("Unknown checker");
+            }
+        }
         java.util.List<Question> savedQuestions = new java.util.ArrayList<>();
         for (CreateQuestionRequest request : requests) {
             Question question = Question.builder()
@@ -49,6 +64,10 @@ public class QuestionController {
                     .sampleTestInput(request.getSampleTestInput())
                     .sampleTestOutput(request.getSampleTestOutput())
                     .explanation(request.getExplanation())
+                    .stopOnFirstFailure(request.isStopOnFirstFailure())
+                    .checker(request.getChecker() != null ? request.getChecker() : ExactChecker.NAME)
+                    .checkerEpsilon(request.getCheckerEpsilon())
+                    .checkerName(request.getCheckerName())
                     .build();
             savedQuestions.add(questionService.saveQuestion(question));
         }
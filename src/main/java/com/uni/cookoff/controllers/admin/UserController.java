@@ -2,6 +2,7 @@ package com.uni.cookoff.controllers.admin;
 
 import com.uni.cookoff.models.User;
 import com.uni.cookoff.models.Submission;
+import com.uni.cookoff.services.LeaderboardService;
 import com.uni.cookoff.services.UserService;
 import com.uni.cookoff.repositories.SubmissionRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,7 @@ public class UserController {
     private final UserService userService;
     private final SubmissionRepository submissionRepository;
     private final StringRedisTemplate redisTemplate;
+    private final LeaderboardService leaderboardService;
 
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
@@ -24,8 +26,19 @@ public class UserController {
     }
 
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<User>> getLeaderboard() {
-        return ResponseEntity.ok(userService.findTopUsersByScore());
+    public ResponseEntity<?> getLeaderboard(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(leaderboardService.pageFromDatabase(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/leaderboard/rebuild")
+    public ResponseEntity<?> rebuildLeaderboard() {
+        int users = leaderboardService.rebuild();
+        return ResponseEntity.ok(Map.of("message", "Leaderboard rebuilt", "users", users));
     }
 
     @PostMapping("/upgrade-round")
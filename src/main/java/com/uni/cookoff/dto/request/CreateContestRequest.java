@@ -12,4 +12,8 @@ public class CreateContestRequest {
     private int roundNumber;
     private boolean isActive;
     private Integer maxParticipants;
+    private Integer submissionQueueCapacity;
+    private Integer submissionQueuePerUser;
+    private Integer runcodeRatePerMinute;
+    private Integer submitRatePerMinute;
 }
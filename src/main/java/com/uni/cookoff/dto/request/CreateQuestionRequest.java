@@ -14,4 +14,8 @@ public class CreateQuestionRequest {
     private String sampleTestInput;
     private String sampleTestOutput;
     private String explanation;
+    private boolean stopOnFirstFailure;
+    private String checker;
+    private Double checkerEpsilon;
+    private String checkerName;
 } 
\ No newline at end of file
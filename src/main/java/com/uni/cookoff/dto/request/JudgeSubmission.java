@@ -1,5 +1,6 @@
 package com.uni.cookoff.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
@@ -36,4 +37,15 @@ public class JudgeSubmission {
 
     @JsonProperty("memory_limit")
     private Integer memoryLimit; // in KB
+
+    // Blob store hashes used instead of input/output for large test cases
+    @JsonIgnore
+    private String inputBlob;
+
+    @JsonIgnore
+    private String outputBlob;
+
+    // Pre-encoded "stdin" member; when set, input is not written again
+    @JsonIgnore
+    private byte[] encodedPayload;
 }
\ No newline at end of file
@@ -12,4 +12,8 @@ public class UpdateContestRequest {
     private Integer roundNumber;
     private Boolean isActive;
     private Integer maxParticipants;
+    private Integer submissionQueueCapacity;
+    private Integer submissionQueuePerUser;
+    private Integer runcodeRatePerMinute;
+    private Integer submitRatePerMinute;
 }
@@ -0,0 +1,17 @@
+package com.uni.cookoff.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSubmissionResponse {
+    private List<JudgeResponse> submissions;
+}
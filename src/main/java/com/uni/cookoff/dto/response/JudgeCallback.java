@@ -1,6 +1,7 @@
 package com.uni.cookoff.dto.response;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,7 +14,15 @@ import lombok.NoArgsConstructor;
 public class JudgeCallback {
     private String submissionId;
     private String testCaseId;
+    // Set only on verdicts straight from the judge; cached and skipped verdicts are already checked
+    private String token;
     private String time;
     private Integer memory;
     private JudgeStatus status;
-}
\ No newline at end of file
+    // Base64 in Judge0 callbacks; cleared once the output has been checked
+    private String stdout;
+
+    // Polled results are fetched with base64_encoded=false
+    @JsonIgnore
+    private boolean plainStdout;
+}
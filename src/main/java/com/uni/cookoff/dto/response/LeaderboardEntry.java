@@ -0,0 +1,22 @@
+package com.uni.cookoff.dto.response;
+
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private String name;
+    private String regNo;
+    private double score;
+    private int roundQualified;
+
+    @JsonIgnore
+    private String userId;
+}
@@ -0,0 +1,19 @@
+package com.uni.cookoff.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPage {
+    private List<LeaderboardEntry> entries;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -15,4 +15,5 @@ import java.util.List;
 public class RunCodeResponse {
     private List<JudgeResponse> result;
     private int testCasesPassed;
+    private int totalTestCases;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.uni.cookoff.dto.response;
+
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionStatusResponse {
+    private String submissionId;
+    private String status;
+    private int testCasesPassed;
+    private int testCasesFailed;
+    private int totalTestCases;
+
+    @JsonIgnore
+    private String userId;
+}
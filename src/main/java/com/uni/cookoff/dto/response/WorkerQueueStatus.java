@@ -0,0 +1,24 @@
+package com.uni.cookoff.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of Judge0's GET /workers response.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerQueueStatus {
+    private String queue;
+    private int size;
+    private int available;
+    private int idle;
+    private int working;
+    private int paused;
+    private int failed;
+}
@@ -36,6 +36,18 @@ public class Contest {
     @Column(name = "max_participants")
     private Integer maxParticipants;
 
+    @Column(name = "submission_queue_capacity")
+    private Integer submissionQueueCapacity;
+
+    @Column(name = "submission_queue_per_user")
+    private Integer submissionQueuePerUser;
+
+    @Column(name = "runcode_rate_per_minute")
+    private Integer runcodeRatePerMinute;
+
+    @Column(name = "submit_rate_per_minute")
+    private Integer submitRatePerMinute;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -41,4 +41,17 @@ public class Question {
 
     @Column(columnDefinition = "TEXT")
     private String explanation;
+
+    @Column(name = "stop_on_first_failure")
+    private boolean stopOnFirstFailure;
+
+    // exact | token | float | custom; see OutputCheckService
+    private String checker;
+
+    @Column(name = "checker_epsilon")
+    private Double checkerEpsilon;
+
+    // Name of the OutputChecker bean used by the custom mode
+    @Column(name = "checker_name")
+    private String checkerName;
 }
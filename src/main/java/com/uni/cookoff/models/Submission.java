@@ -36,4 +36,18 @@ public class Submission {
     private User user;
 
     private String status;
+
+    // Reconciler passes over this submission while it was pending, and when the last one ran
+    @Column(name = "reconcile_attempts")
+    private int reconcileAttempts;
+
+    @Column(name = "reconciled_at")
+    private Timestamp reconciledAt;
+
+    // Lease on the fail-fast wave plan, so only one node sends waves for the submission
+    @Column(name = "fail_fast_owner")
+    private String failFastOwner;
+
+    @Column(name = "fail_fast_claimed_at")
+    private Timestamp failFastClaimedAt;
 }
@@ -26,6 +26,19 @@ public class Testcase {
 
     private double runtime;
 
+    // Set for every test case; input/expectedOutput are null when the payload lives in the blob store
+    @Column(name = "input_hash")
+    private String inputHash;
+
+    @Column(name = "input_size")
+    private Long inputSize;
+
+    @Column(name = "expected_output_hash")
+    private String expectedOutputHash;
+
+    @Column(name = "expected_output_size")
+    private Long expectedOutputSize;
+
     @ManyToOne
     @JoinColumn(name = "question_id")
     private Question question;
@@ -2,12 +2,15 @@ package com.uni.cookoff.repositories;
 
 import com.uni.cookoff.models.Submission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 @Repository
@@ -24,4 +27,33 @@ public interface SubmissionRepository extends JpaRepository<Submission, String>
     }
 
     List<Submission> findByUserIdAndStatus(String userId, String status);
+
+    interface ReconcileCandidate {
+        String getId();
+
+        int getReconcileAttempts();
+    }
+
+    // Least recently reconciled first, so submissions that stay stuck cannot starve newer ones
+    @Query("SELECT s.id AS id, s.reconcileAttempts AS reconcileAttempts FROM Submission s "
+            + "WHERE s.status = :status AND s.submissionTime < :cutoff "
+            + "ORDER BY s.reconciledAt ASC NULLS FIRST, s.submissionTime")
+    List<ReconcileCandidate> findReconcileCandidates(@Param("status") String status, @Param("cutoff") Timestamp cutoff, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Submission s SET s.reconcileAttempts = s.reconcileAttempts + 1, s.reconciledAt = :now WHERE s.id IN :ids")
+    int markReconciled(@Param("ids") List<String> ids, @Param("now") Timestamp now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Submission s SET s.failFastOwner = :owner, s.failFastClaimedAt = :now WHERE s.id = :id "
+            + "AND (s.failFastOwner IS NULL OR s.failFastOwner = :owner OR s.failFastClaimedAt < :expiredBefore)")
+    int claimFailFast(@Param("id") String id, @Param("owner") String owner, @Param("now") Timestamp now,
+                      @Param("expiredBefore") Timestamp expiredBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Submission s SET s.testcasesPassed = :passed, s.testcasesFailed = :failed, s.status = :status WHERE s.id = :id")
+    int updateProgress(@Param("id") String id, @Param("passed") int passed, @Param("failed") int failed, @Param("status") String status);
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.uni.cookoff.repositories;
 
 import com.uni.cookoff.models.SubmissionResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +14,24 @@ public interface SubmissionResultRepository extends JpaRepository<SubmissionResu
     List<SubmissionResult> findBySubmissionId(String submissionId);
     List<SubmissionResult> findByTestcaseId(String testcaseId);
     List<SubmissionResult> findByStatus(String status);
+    long countBySubmissionId(String submissionId);
+    long countBySubmissionIdAndStatus(String submissionId, String status);
+
+    interface TestcaseStats {
+        String getTestcaseId();
+        Double getFailureRate();
+        Double getAvgRuntime();
+    }
+
+    // Skipped results say nothing about the test case itself, so they are left out
+    @Query(value = "SELECT r.testcase_id AS testcaseId, " +
+            "AVG(CASE WHEN r.status = 'success' THEN 0 ELSE 1 END) AS failureRate, " +
+            "AVG(r.runtime) AS avgRuntime " +
+            "FROM submission_results r JOIN testcases t ON t.id = r.testcase_id " +
+            "WHERE t.question_id = :questionId AND r.status <> 'skipped' " +
+            "GROUP BY r.testcase_id", nativeQuery = true)
+    List<TestcaseStats> findTestcaseStats(@Param("questionId") String questionId);
+
+    @Query("SELECT CONCAT(r.submission.id, ':', r.testcase.id) FROM SubmissionResult r WHERE r.submission.id IN :submissionIds")
+    List<String> findRecordedKeys(@Param("submissionIds") Collection<String> submissionIds);
 }
\ No newline at end of file
@@ -4,8 +4,12 @@ import com.uni.cookoff.models.SubmissionResult;
 import com.uni.cookoff.models.SubmissionToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface SubmissionTokenRepository extends JpaRepository<SubmissionToken, String> {
     SubmissionToken findBySubmissionIdAndTestcaseId(String submissionId, String testcaseId);
     void deleteBySubmissionId(String submissionId);
     void deleteByTestcaseId(String testcaseId);
+    List<SubmissionToken> findBySubmissionIdIn(Collection<String> submissionIds);
 }
@@ -10,4 +10,5 @@ import java.util.List;
 public interface TestcaseRepository extends JpaRepository<Testcase, String> {
     List<Testcase> findByQuestionId(String questionId);
     List<Testcase> findByHidden(boolean hidden);
+    long countByQuestionId(String questionId);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.uni.cookoff.repositories;
 
 import com.uni.cookoff.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,20 @@ import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+
+    // Just what the leaderboard shows, without loading whole entities
+    interface LeaderboardRow {
+        String getId();
+
+        String getName();
+
+        String getRegNo();
+
+        double getScore();
+
+        int getRoundQualified();
+    }
+
     Optional<User> findByEmail(String email);
     Optional<User> findByRegNo(String regNo);
     List<User> findByRole(String role);
@@ -21,8 +36,17 @@ public interface UserRepository extends JpaRepository<User, String> {
     List<User> findByRoleAndIsBannedFalse(String role);
     @Query("SELECT u FROM User u WHERE u.roundQualified = :round AND u.isBanned = false")
     List<User> findQualifiedUsersForRound(@Param("round") int round);
-    @Query("SELECT u FROM User u WHERE u.isBanned = false ORDER BY u.score DESC")
-    List<User> findTopUsersByScore();
+    @Query("SELECT u.id AS id, u.name AS name, u.regNo AS regNo, u.score AS score, u.roundQualified AS roundQualified "
+            + "FROM User u WHERE u.isBanned = false")
+    List<LeaderboardRow> findLeaderboardRows();
+    // Keyset pages in (score DESC, id DESC) order, the same order as the Redis sorted set
+    @Query("SELECT u.id AS id, u.name AS name, u.regNo AS regNo, u.score AS score, u.roundQualified AS roundQualified "
+            + "FROM User u WHERE u.isBanned = false ORDER BY u.score DESC, u.id DESC")
+    List<LeaderboardRow> findLeaderboardFirstPage(Pageable pageable);
+    @Query("SELECT u.id AS id, u.name AS name, u.regNo AS regNo, u.score AS score, u.roundQualified AS roundQualified "
+            + "FROM User u WHERE u.isBanned = false AND (u.score < :score OR (u.score = :score AND u.id < :id)) "
+            + "ORDER BY u.score DESC, u.id DESC")
+    List<LeaderboardRow> findLeaderboardPageAfter(@Param("score") double score, @Param("id") String id, Pageable pageable);
     boolean existsByEmail(String email);
     boolean existsByRegNo(String regNo);
 
@@ -0,0 +1,198 @@
+package com.uni.cookoff.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for large test case payloads, keyed by SHA-256.
+ * Blobs are immutable, so they are written once and read through read-only memory
+ * mappings that live outside the Java heap and are shared by every in-flight submission.
+ * The blobs table is the shared copy every node can read; {@code blobs.dir} is a local cache
+ * filled from it on first use, so a test case saved on one node can be judged on any other.
+ */
+@Component
+@Slf4j
+public class BlobStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path root;
+    private final Map<String, ByteBuffer> mappings;
+
+    // Without a JdbcTemplate blobs stay on local disk only (single node, tests)
+    public BlobStore(JdbcTemplate jdbcTemplate,
+                     @Value("${blobs.dir:data/blobs}") String dir,
+                     @Value("${blobs.max-mapped:1024}") int maxMapped) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.root = Files.createDirectories(Path.of(dir));
+        this.mappings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ByteBuffer> eldest) {
+                return size() > maxMapped;
+            }
+        };
+    }
+
+    public static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Stores the bytes if they are not already present and returns their hash.
+     * The shared copy is written first, so the hash is never handed out before other nodes can read it.
+     */
+    public String put(byte[] data) {
+        String hash = sha256(data);
+        share(hash, data);
+        Path target = pathOf(hash);
+        if (Files.exists(target)) {
+            return hash;
+        }
+
+        try {
+            cache(hash, new ByteArrayInputStream(data));
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store blob " + hash, e);
+        }
+    }
+
+    private void share(String hash, byte[] data) {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        Integer present = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blobs WHERE hash = ?", Integer.class, hash);
+        if (present == null || present == 0) {
+            jdbcTemplate.update("INSERT INTO blobs (hash, size, data) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE hash = hash",
+                    hash, data.length, data);
+        }
+    }
+
+    // Written under a temporary name and moved into place, so readers never map a partial file
+    private void cache(String hash, InputStream data) throws IOException {
+        Path target = pathOf(hash);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            Files.copy(data, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // another thread cached it first; the content is the same
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Copies a blob saved on another node into the local cache
+    private void fetch(String hash) {
+        Boolean found = jdbcTemplate == null ? Boolean.FALSE : jdbcTemplate.query("SELECT data FROM blobs WHERE hash = ?", rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            try (InputStream data = rs.getBinaryStream(1)) {
+                cache(hash, data);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not cache blob " + hash, e);
+            }
+            return true;
+        }, hash);
+        if (!Boolean.TRUE.equals(found)) {
+            throw new UncheckedIOException(new NoSuchFileException("Blob " + hash + " is neither cached nor in the blobs table"));
+        }
+    }
+
+    /**
+     * Copies blobs that only exist in this node's directory, i.e. were stored before the
+     * blobs table existed, into the table so other nodes can read them too.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void shareLocalBlobs() {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().matches("[0-9a-f]{64}"))
+                    .forEach(path -> {
+                        try {
+                            share(path.getFileName().toString(), Files.readAllBytes(path));
+                        } catch (Exception e) {
+                            log.warn("Could not share blob {}: {}", path.getFileName(), e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Could not scan {} for unshared blobs: {}", root, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a read-only view of the blob positioned at its start. Each caller gets its own
+     * view, so positions never interfere.
+     */
+    public ByteBuffer read(String hash) {
+        ByteBuffer mapping;
+        synchronized (mappings) {
+            mapping = mappings.get(hash);
+        }
+        if (mapping == null) {
+            if (!Files.exists(pathOf(hash))) {
+                fetch(hash);
+            }
+            try (FileChannel channel = FileChannel.open(pathOf(hash), StandardOpenOption.READ)) {
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read blob " + hash, e);
+            }
+            synchronized (mappings) {
+                mappings.put(hash, mapping);
+            }
+        }
+        return mapping.asReadOnlyBuffer();
+    }
+
+    public void writeTo(String hash, OutputStream out) throws IOException {
+        ByteBuffer buffer = read(hash);
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public String readString(String hash) {
+        return StandardCharsets.UTF_8.decode(read(hash)).toString();
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
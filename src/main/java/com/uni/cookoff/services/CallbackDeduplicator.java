@@ -0,0 +1,142 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.dto.response.JudgeCallback;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recently-seen (submissionId, testCaseId) pairs, so a callback Judge0 retries, or a verdict
+ * the reconciler picks up again, is dropped before it costs a write or a status update.
+ * With {@code callback.dedupe.store=redis} the set is shared by all nodes; use it together
+ * with the Redis progress store. The unique key on submission_results backs this up.
+ */
+@Component
+@Slf4j
+public class CallbackDeduplicator {
+
+    private static final String KEY_PREFIX = "callback:seen:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, Long> seen;
+    private final Counter duplicates;
+
+    @Value("${callback.dedupe.store:memory}")
+    private String store;
+
+    @Value("${callback.dedupe.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    public CallbackDeduplicator(StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${callback.dedupe.max-entries:200000}") int maxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.seen = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.duplicates = Counter.builder("cookoff.callbacks.duplicates")
+                .description("Callbacks dropped because their verdict was already recorded")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Marks the callbacks as seen and returns only those that were not seen before,
+     * including duplicates within the list itself.
+     */
+    public List<JudgeCallback> filterNew(String submissionId, List<JudgeCallback> callbacks) {
+        List<JudgeCallback> unique = new ArrayList<>(callbacks.size());
+        List<String> keys = new ArrayList<>(callbacks.size());
+        Set<String> inBatch = new HashSet<>();
+        for (JudgeCallback callback : callbacks) {
+            String key = submissionId + ":" + callback.getTestCaseId();
+            if (inBatch.add(key)) {
+                unique.add(callback);
+                keys.add(key);
+            }
+        }
+
+        List<Boolean> fresh = "redis".equals(store) ? markInRedis(keys) : markInMemory(keys);
+        List<JudgeCallback> result = new ArrayList<>(unique.size());
+        for (int i = 0; i < unique.size(); i++) {
+            if (fresh.get(i)) {
+                result.add(unique.get(i));
+            }
+        }
+
+        int dropped = callbacks.size() - result.size();
+        if (dropped > 0) {
+            duplicates.increment(dropped);
+            log.debug("Dropped {} duplicate callbacks for submission {}", dropped, submissionId);
+        }
+        return result;
+    }
+
+    /**
+     * Unmarks callbacks whose processing failed, so a retry or the reconciler can deliver them again.
+     */
+    public void forget(String submissionId, List<JudgeCallback> callbacks) {
+        List<String> keys = callbacks.stream().map(c -> submissionId + ":" + c.getTestCaseId()).toList();
+        if ("redis".equals(store)) {
+            try {
+                redisTemplate.delete(keys.stream().map(key -> KEY_PREFIX + key).toList());
+            } catch (Exception e) {
+                log.warn("Could not clear seen callbacks for {}: {}", submissionId, e.getMessage());
+            }
+            return;
+        }
+        synchronized (seen) {
+            keys.forEach(seen::remove);
+        }
+    }
+
+    private List<Boolean> markInMemory(List<String> keys) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlSeconds * 1000;
+        List<Boolean> fresh = new ArrayList<>(keys.size());
+        synchronized (seen) {
+            for (String key : keys) {
+                Long previous = seen.get(key);
+                boolean isNew = previous == null || previous < now;
+                if (isNew) {
+                    seen.put(key, expiresAt);
+                }
+                fresh.add(isNew);
+            }
+        }
+        return fresh;
+    }
+
+    // One pipelined SET NX EX per key; when Redis is unreachable everything counts as new
+    private List<Boolean> markInRedis(List<String> keys) {
+        try {
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.stringCommands().set((KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8),
+                            new byte[]{'1'}, Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.SET_IF_ABSENT);
+                }
+                return null;
+            });
+            return replies.stream().map(Boolean.TRUE::equals).toList();
+        } catch (Exception e) {
+            log.warn("Callback dedupe unavailable, processing all: {}", e.getMessage());
+            return keys.stream().map(key -> true).toList();
+        }
+    }
+}
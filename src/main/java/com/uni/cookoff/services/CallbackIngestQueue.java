@@ -0,0 +1,110 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.dto.response.JudgeCallback;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer between the /callback endpoint and the database.
+ * Callbacks are acknowledged as soon as they are queued; a single flusher thread drains
+ * the queue, groups verdicts by submission and hands each group to
+ * {@link CodeExecutionService#processCallbacks} in one go.
+ */
+@Component
+@Slf4j
+public class CallbackIngestQueue {
+
+    private final CodeExecutionService codeExecutionService;
+    private final BlockingQueue<JudgeCallback> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public CallbackIngestQueue(CodeExecutionService codeExecutionService,
+                               MeterRegistry meterRegistry,
+                               @Value("${callback.queue.capacity:10000}") int capacity,
+                               @Value("${callback.queue.max-batch-size:500}") int maxBatchSize,
+                               @Value("${callback.queue.flush-interval-ms:50}") long flushIntervalMs) {
+        this.codeExecutionService = codeExecutionService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flusher = new Thread(this::runFlusher, "callback-flusher");
+        this.flusher.setDaemon(true);
+
+        Gauge.builder("cookoff.callbacks.queue.depth", queue, BlockingQueue::size)
+                .description("Judge0 callbacks waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.start();
+    }
+
+    /**
+     * Queues a callback for the next flush. When the queue is full the callback is
+     * processed on the caller's thread, which slows Judge0 down instead of dropping verdicts.
+     */
+    public void enqueue(JudgeCallback callback) {
+        if (!queue.offer(callback)) {
+            log.warn("Callback queue full, processing submission {} inline", callback.getSubmissionId());
+            codeExecutionService.processCallback(callback);
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                JudgeCallback first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<JudgeCallback> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Callback flush failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void flush(List<JudgeCallback> batch) {
+        Map<String, List<JudgeCallback>> bySubmission = new LinkedHashMap<>();
+        for (JudgeCallback callback : batch) {
+            bySubmission.computeIfAbsent(callback.getSubmissionId(), id -> new ArrayList<>()).add(callback);
+        }
+        bySubmission.forEach(codeExecutionService::processCallbacks);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+
+        List<JudgeCallback> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+}
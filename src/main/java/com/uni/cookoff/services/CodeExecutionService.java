@@ -1,78 +1,211 @@
 package com.uni.cookoff.services;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.f4b6a3.uuid.UuidCreator;
-import com.uni.cookoff.dto.request.BatchSubmissionRequest;
+import com.uni.cookoff.Exception.JudgeBusyException;
 import com.uni.cookoff.dto.request.JudgeSubmission;
 import com.uni.cookoff.dto.request.JudgeToken;
 import com.uni.cookoff.dto.request.SubmissionRequest;
 import com.uni.cookoff.dto.response.JudgeCallback;
 import com.uni.cookoff.dto.response.JudgeResponse;
+import com.uni.cookoff.dto.response.JudgeStatus;
 import com.uni.cookoff.dto.response.RunCodeResponse;
 import com.uni.cookoff.dto.response.SubmissionResponse;
+import com.uni.cookoff.dto.response.SubmissionStatusResponse;
 import com.uni.cookoff.models.*;
+import com.uni.cookoff.services.checker.OutputCheckService;
+import com.uni.cookoff.services.judge.JudgeClient;
+import com.uni.cookoff.services.judge.JudgePayloadCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CodeExecutionService {
 
-    private final RestTemplate restTemplate;
+    private final JudgeClient judgeClient;
     private final TestcaseService testcaseService;
     private final SubmissionService submissionService;
     private final SubmissionResultService submissionResultService;
     private final UserService userService;
     private final SubmissionTokenService submissionTokenService;
-
-    @Value("${judge0.uri}")
-    private String judge0Uri;
-
-    @Value("${judge0.token}")
-    private String judge0Token;
+    private final ParallelRunExecutor parallelRunExecutor;
+    private final SubmissionProgressTracker progressTracker;
+    private final SubmissionScheduler submissionScheduler;
+    private final VerdictCache verdictCache;
+    private final TestcaseOrdering testcaseOrdering;
+    private final CallbackDeduplicator callbackDeduplicator;
+    private final SubmissionStatusBoard statusBoard;
+    private final JudgePayloadCache judgePayloadCache;
+    private final OutputCheckService outputCheckService;
+    private final ScoringService scoringService;
 
     @Value("${callback.url}")
     private String callbackUrl;
 
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    @Value("${judge0.callbacks.enabled:true}")
+    private boolean callbacksEnabled;
 
-    public RunCodeResponse runCode(SubmissionRequest request) {
-        List<Testcase> testCases = testcaseService.findByQuestionId(request.getQuestionId());
+    @Value("${judge0.run.mode:parallel}")
+    private String runMode;
 
-        if (testCases.isEmpty()) {
-            throw new RuntimeException("No test cases found for question");
+    @Value("${judge0.run.poll.initial-delay-ms:200}")
+    private long pollInitialDelayMs;
+
+    @Value("${judge0.run.poll.max-delay-ms:2000}")
+    private long pollMaxDelayMs;
+
+    @Value("${judge0.run.poll.timeout-ms:60000}")
+    private long pollTimeoutMs;
+
+    @Value("${judge0.guard.submit-retry-ms:60000}")
+    private long submitRetryMs;
+
+    @Value("${judge0.fail-fast.initial-wave-size:1}")
+    private int initialWaveSize;
+
+    @Value("${judge0.fail-fast.max-wave-size:8}")
+    private int maxWaveSize;
+
+    // Must outlast a whole wave submit, including waiting out a busy judge
+    @Value("${judge0.fail-fast.lease-ms:180000}")
+    private long failFastLeaseMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Not a Judge0 status; recorded for test cases a fail-fast submission never ran
+    static final String SKIPPED_STATUS_ID = "0";
+
+    // submission_results.status of an accepted test case
+    private static final String PASSED_STATUS = "success";
+
+    /**
+     * Test cases of a stop-on-first-failure submission that have not been sent yet.
+     * Waves start small and double, so accepted submissions still finish in a few round trips.
+     * Plans live in memory on one node; a lease on the submission row, renewed before every wave,
+     * keeps other nodes' reconcilers from sending a wave of their own until the owner is gone.
+     */
+    private static final class FailFastPlan {
+        final Submission submission;
+        final Deque<Testcase> remaining;
+        int outstanding;
+        int nextWaveSize;
+
+        FailFastPlan(Submission submission, List<Testcase> ordered, int initialWaveSize) {
+            this.submission = submission;
+            this.remaining = new ArrayDeque<>(ordered);
+            this.nextWaveSize = initialWaveSize;
         }
+    }
 
-        List<JudgeResponse> results = new ArrayList<>();
-        int testCasesPassed = 0;
+    private final Map<String, FailFastPlan> failFastPlans = new ConcurrentHashMap<>();
 
-        for (Testcase testCase : testCases) {
-            JudgeResponse result = executeTestCase(request, testCase);
-            results.add(result);
+    // Only the fields RunCodeResponse actually exposes, to keep poll responses small
+    private static final String RUN_POLL_FIELDS = "token,stdout,stderr,status,time,memory,message";
 
-            if ("Accepted".equals(result.getStatus().getDescription())) {
-                testCasesPassed++;
-            }
+    /**
+     * Receives test case results of a streamed run as they complete, in completion order.
+     * Calls may come from several threads at once.
+     */
+    public interface RunListener {
+        void onResult(int index, JudgeResponse response);
+
+        default void onComplete(RunCodeResponse summary) {
         }
 
+        default void onError(Exception e) {
+        }
+    }
+
+    public RunCodeResponse runCode(SubmissionRequest request) {
+        List<Testcase> testCases = runnableTestCases(request);
+        List<JudgeResponse> results = runTestCases(request, testCases, (index, response) -> { });
+
         return RunCodeResponse.builder()
                 .result(results)
-                .testCasesPassed(testCasesPassed)
+                .testCasesPassed(countPassed(results))
+                .totalTestCases(testCases.size())
                 .build();
     }
 
+    /**
+     * Same as {@link #runCode} but returns immediately and reports each result to the listener
+     * as soon as it is known, followed by a summary without the result list.
+     * Validation failures and an unavailable judge are still thrown to the caller.
+     * Returns the thread running the test cases; interrupting it cancels the run, and no
+     * further judge calls are made for it.
+     */
+    public Thread runCodeStreaming(SubmissionRequest request, RunListener listener) {
+        List<Testcase> testCases = runnableTestCases(request);
+
+        return Thread.ofVirtual().name("run-stream").start(() -> {
+            try {
+                List<JudgeResponse> results = runTestCases(request, testCases, listener);
+                listener.onComplete(RunCodeResponse.builder()
+                        .testCasesPassed(countPassed(results))
+                        .totalTestCases(testCases.size())
+                        .build());
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    log.debug("Streaming run cancelled: {}", e.getMessage());
+                    return;
+                }
+                log.error("Error streaming run: {}", e.getMessage(), e);
+                listener.onError(e);
+            }
+        });
+    }
+
+    private List<Testcase> runnableTestCases(SubmissionRequest request) {
+        List<Testcase> testCases = testcaseService.findByQuestionId(request.getQuestionId());
+
+        if (testCases.isEmpty()) {
+            throw new RuntimeException("No test cases found for question");
+        }
+        judgeClient.ensureAvailable();
+        return testCases;
+    }
+
+    private List<JudgeResponse> runTestCases(SubmissionRequest request, List<Testcase> testCases, RunListener listener) {
+        return switch (runMode) {
+            case "sequential" -> {
+                List<JudgeResponse> results = new ArrayList<>(testCases.size());
+                for (int i = 0; i < testCases.size(); i++) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new RuntimeException("Run cancelled");
+                    }
+                    JudgeResponse response = executeTestCase(request, testCases.get(i));
+                    listener.onResult(i, response);
+                    results.add(response);
+                }
+                yield results;
+            }
+            case "batch" -> runBatch(request, testCases, listener);
+            default -> {
+                List<Integer> indexes = IntStream.range(0, testCases.size()).boxed().toList();
+                yield parallelRunExecutor.map(indexes, i -> {
+                    JudgeResponse response = executeTestCase(request, testCases.get(i));
+                    listener.onResult(i, response);
+                    return response;
+                });
+            }
+        };
+    }
+
+    private static int countPassed(List<JudgeResponse> results) {
+        return (int) results.stream()
+                .filter(result -> "Accepted".equals(result.getStatus().getDescription()))
+                .count();
+    }
+
     public SubmissionResponse submitCode(SubmissionRequest request, String userId) {
         List<Testcase> testCases = testcaseService.findByQuestionId(request.getQuestionId());
         User user = userService.findByUserId(userId)
@@ -81,6 +214,21 @@ public class CodeExecutionService {
             throw new RuntimeException("No test cases found for question");
         }
 
+        String verdictKey = verdictCache.keyFor(request.getSourceCode(), request.getLanguageId(), request.getQuestionId());
+        List<VerdictCache.CachedVerdict> cached = verdictCache.lookup(verdictKey);
+        if (cached != null && cached.size() != testCases.size()) {
+            cached = null;
+        }
+
+        // A cache hit never reaches the judge, so only misses need the judge to be up and a queue slot.
+        if (cached == null) {
+            judgeClient.ensureAvailable();
+        }
+        // reserve throws SubmissionQueueFullException before anything is written when the queue is saturated.
+        SubmissionScheduler.Reservation reservation = cached == null
+                ? submissionScheduler.reserve(userId, testCases.get(0).getQuestion().getRound())
+                : null;
+
         String submission_id = UuidCreator.getTimeOrdered().toString();
         Submission submission = Submission.builder()
                 .user(user)
@@ -88,16 +236,34 @@ public class CodeExecutionService {
                 .question(Question.builder().id(request.getQuestionId()).build())
                 .languageId(request.getLanguageId())
                 .description(request.getSourceCode())
+                .submissionTime(new Timestamp(System.currentTimeMillis()))
                 .status("PENDING")
                 .build();
 
-        submission = submissionService.saveSubmission(submission);
+        try {
+            submission = submissionService.saveSubmission(submission);
+            progressTracker.register(submission.getId(), testCases.size());
+            statusBoard.publish(SubmissionStatusResponse.builder()
+                    .submissionId(submission.getId())
+                    .userId(userId)
+                    .status("PENDING")
+                    .totalTestCases(testCases.size())
+                    .build());
+        } catch (RuntimeException e) {
+            if (reservation != null) {
+                submissionScheduler.release(reservation);
+            }
+            throw e;
+        }
 
-        Submission finalSubmission = submission;
-        CompletableFuture.runAsync(() -> {
-            System.out.println("reached here ");
-            submitToJudge0(finalSubmission, testCases);
-        }, executorService);
+        if (cached != null) {
+            log.debug("Verdict cache hit for submission {}", submission.getId());
+            processCallbacks(submission.getId(), verdictCache.toCallbacks(submission.getId(), cached));
+        } else {
+            verdictCache.expect(submission.getId(), verdictKey);
+            Submission finalSubmission = submission;
+            submissionScheduler.submit(reservation, () -> submitToJudge0(finalSubmission, testCases));
+        }
 
         return SubmissionResponse.builder()
                 .submissionId(submission.getId())
@@ -105,106 +271,253 @@ public class CodeExecutionService {
     }
 
     public void processCallback(JudgeCallback callback) {
-        log.debug("Processing callback: {}", callback);
-        System.out.println("Callback content: " + callback.toString());
-        System.out.println("Submission ID from callback: " + callback.getSubmissionId());
-        System.out.println("Test Case ID from callback: " + callback.getTestCaseId());
-        try {
-            String submissionId = callback.getSubmissionId();
-            String testCaseId = callback.getTestCaseId();
-
-            // Fetch the actual entities from the database
-            Submission submission = submissionService.findById(submissionId)
-                    .orElseThrow(() -> new RuntimeException("Submission not found: " + submissionId));
-
-            Testcase testcase = testcaseService.findById(testCaseId)
-                    .orElseThrow(() -> new RuntimeException("Testcase not found: " + testCaseId));
+        processCallbacks(callback.getSubmissionId(), List.of(callback));
+    }
 
-            SubmissionResult result = SubmissionResult.builder()
-                    .submission(submission) // Use the fetched entity
-                    .testcase(testcase)     // Use the fetched entity
-                    .runtime(Double.parseDouble(callback.getTime()))
-                    .memory(callback.getMemory())
-                    .status(mapStatus(callback.getStatus().getId()))
-                    .description(callback.getStatus().getDescription())
-                    .build();
+    /**
+     * Records a group of verdicts for one submission: one JDBC batch for the results
+     * and a single status update, instead of a lookup, insert and recount per callback.
+     */
+    public void processCallbacks(String submissionId, List<JudgeCallback> callbacks) {
+        log.debug("Processing {} callbacks for submission {}", callbacks.size(), submissionId);
+        // Retried or re-reconciled verdicts stop here, before any write or status update
+        List<JudgeCallback> fresh = callbackDeduplicator.filterNew(submissionId, callbacks);
+        if (fresh.isEmpty()) {
+            return;
+        }
 
-            result.setId(UuidCreator.getTimeOrdered().toString());
+        boolean saved = false;
+        try {
+            checkOutputs(submissionId, fresh);
+            Submission submission = Submission.builder().id(submissionId).build();
+            List<SubmissionResult> results = new ArrayList<>(fresh.size());
+            boolean anyFailed = false;
+
+            for (JudgeCallback callback : fresh) {
+                results.add(SubmissionResult.builder()
+                        .id(UuidCreator.getTimeOrdered().toString())
+                        .submission(submission)
+                        .testcase(Testcase.builder().id(callback.getTestCaseId()).build())
+                        .runtime(callback.getTime() != null ? Double.parseDouble(callback.getTime()) : 0)
+                        .memory(callback.getMemory() != null ? callback.getMemory() : 0)
+                        .status(mapStatus(callback.getStatus().getId()))
+                        .description(callback.getStatus().getDescription())
+                        .build());
+                anyFailed |= !"3".equals(callback.getStatus().getId());
+            }
 
-            submissionResultService.saveSubmissionResult(result);
-            updateSubmissionStatus(submissionId);
+            // Another node may have stored some of these already; only rows inserted here count
+            List<SubmissionResult> inserted = submissionResultService.saveAllInBatch(results);
+            saved = true;
+            verdictCache.record(submissionId, fresh);
+            if (!inserted.isEmpty()) {
+                int passed = (int) inserted.stream().filter(result -> PASSED_STATUS.equals(result.getStatus())).count();
+                applyProgress(submissionId, passed, inserted.size() - passed);
+            }
+            // The wave plan lives only on this node, so it advances for every verdict it has not seen yet
+            advanceFailFast(submissionId, fresh.size(), anyFailed);
 
         } catch (Exception e) {
-            log.error("Error processing callback: {}", e.getMessage(), e);
+            log.error("Error processing callbacks for submission {}: {}", submissionId, e.getMessage(), e);
+            if (!saved) {
+                callbackDeduplicator.forget(submissionId, fresh);
+            }
         }
     }
 
     private JudgeResponse executeTestCase(SubmissionRequest request, Testcase testCase) {
         Integer languageId = request.getLanguageId();
 
-        System.out.println(request);
-
         JudgeSubmission submission = JudgeSubmission.builder()
                 .callback(callbackUrl)
                 .languageId(languageId)
                 .sourceCode((request.getSourceCode()))
                 .input((testCase.getInput()))
-                .output((testCase.getExpectedOutput()))
+                .inputBlob(inputBlob(testCase))
+                .encodedPayload(judgePayloadCache.fragmentFor(testCase))
                 .runtime(BigDecimal.valueOf(Math.min(testCase.getRuntime(), 20.0)))
                 .build();
 
-        JudgeResponse response = sendToJudge0(submission);
+        JudgeResponse response = judgeClient.run(submission);
+        checkOutput(testCase, response);
         // Enrich with input and expectedOutput from the testcase
         response.setInput(testCase.getInput());
         response.setExpectedOutput(testCase.getExpectedOutput());
         response.setTestCaseId(testCase.getId());
         return response;
     }
-   private JudgeResponse sendToJudge0(JudgeSubmission submission) {
-       try {
-           String url = judge0Uri + "/submissions?base64_encoded=false&wait=true";
+    /**
+     * Runs every test case through a single /submissions/batch call and then polls
+     * the returned tokens until all of them reach a terminal status.
+     */
+    private List<JudgeResponse> runBatch(SubmissionRequest request, List<Testcase> testCases, RunListener listener) {
+        List<JudgeSubmission> submissions = new ArrayList<>();
+        for (Testcase testCase : testCases) {
+            submissions.add(JudgeSubmission.builder()
+                    .languageId(request.getLanguageId())
+                    .sourceCode(request.getSourceCode())
+                    .input(testCase.getInput())
+                    .inputBlob(inputBlob(testCase))
+                    .encodedPayload(judgePayloadCache.fragmentFor(testCase))
+                    .runtime(BigDecimal.valueOf(Math.min(testCase.getRuntime(), 20.0)))
+                    .build());
+        }
+
+        List<JudgeToken> tokens = judgeClient.submitBatch(submissions);
+        if (tokens.size() != testCases.size()) {
+            throw new RuntimeException("Judge0 returned " + tokens.size() + " tokens for " + testCases.size() + " test cases");
+        }
+
+        return pollBatch(tokens.stream().map(JudgeToken::getToken).toList(), (i, response) -> {
+            Testcase testCase = testCases.get(i);
+            checkOutput(testCase, response);
+            response.setInput(testCase.getInput());
+            response.setExpectedOutput(testCase.getExpectedOutput());
+            response.setTestCaseId(testCase.getId());
+            listener.onResult(i, response);
+        });
+    }
 
-        HttpHeaders headers = createHeaders();
-           headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * Polls only the tokens that are still queued or processing. The delay grows while
+     * nothing finishes and drops back to the initial delay whenever a poll makes progress.
+     */
+    private List<JudgeResponse> pollBatch(List<String> tokens, RunListener onTerminal) {
+        JudgeResponse[] results = new JudgeResponse[tokens.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            pending.add(i);
+        }
 
-           ObjectMapper mapper = new ObjectMapper();
-           String rawJson = mapper.writeValueAsString(submission);
-           System.out.println("Raw JSON: " + rawJson);
+        long deadline = System.currentTimeMillis() + pollTimeoutMs;
+        long delay = pollInitialDelayMs;
 
-           HttpEntity<String> entity = new HttpEntity<>(rawJson, headers);
-           ResponseEntity<JudgeResponse> response = restTemplate.postForEntity(url, entity, JudgeResponse.class);
+        while (!pending.isEmpty()) {
+            if (System.currentTimeMillis() + delay > deadline) {
+                throw new RuntimeException("Timed out waiting for Judge0 results, " + pending.size() + " test cases pending");
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while polling Judge0", e);
+            }
+
+            List<JudgeResponse> polled = judgeClient.fetchBatch(pending.stream().map(tokens::get).toList(), RUN_POLL_FIELDS);
+            List<Integer> stillPending = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                // A short response leaves the missing tokens pending rather than dropping them
+                JudgeResponse polledResult = i < polled.size() ? polled.get(i) : null;
+                if (isTerminal(polledResult)) {
+                    results[pending.get(i)] = polledResult;
+                    onTerminal.onResult(pending.get(i), polledResult);
+                } else {
+                    stillPending.add(pending.get(i));
+                }
+            }
 
-           if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-               return response.getBody();
-           } else {
-               throw new RuntimeException("Judge0 failed: " + response.getStatusCode() + ", body: " + mapper.writeValueAsString(response.getBody()));
-           }
+            delay = stillPending.size() < pending.size()
+                    ? pollInitialDelayMs
+                    : Math.min((long) (delay * 1.5), pollMaxDelayMs);
+            pending = stillPending;
+        }
 
+        return Arrays.asList(results);
+    }
 
-       } catch (HttpClientErrorException e) {
-           log.error("Judge0 API Error: Status={}, Response={}", e.getStatusCode(), e.getResponseBodyAsString());
-           throw new RuntimeException("Judge0 API Error: " + e.getResponseBodyAsString(), e);
-       } catch (Exception e) {
-           log.error("Error in sendToJudge0: {}", e.getMessage(), e);
-           throw new RuntimeException("Error in sendToJudge0", e);
-       }
-   }
+    // Large inputs are kept out of the row and streamed from the blob store by the judge client
+    private static String inputBlob(Testcase testCase) {
+        return testCase.getInput() == null ? testCase.getInputHash() : null;
+    }
+
+    /**
+     * Judge0 gets no expected output, so "Accepted" only means the program ran cleanly;
+     * the question's checker decides whether the output is right.
+     */
+    private void checkOutput(Testcase testCase, JudgeResponse response) {
+        if (response.getStatus() == null || !"3".equals(response.getStatus().getId())) {
+            return;
+        }
+        byte[] stdout = OutputCheckService.decodeStdout(response.getStdOut(), false);
+        if (!outputCheckService.accepts(testCase.getQuestion(), testCase, stdout)) {
+            response.setStatus(wrongAnswer());
+        }
+    }
+
+    /**
+     * Same check for verdicts straight from the judge. Cached and skipped verdicts carry no
+     * token and were settled before. The output is dropped afterwards so it is not held any longer.
+     */
+    private void checkOutputs(String submissionId, List<JudgeCallback> callbacks) {
+        List<JudgeCallback> ran = callbacks.stream()
+                .filter(c -> c.getToken() != null && c.getStatus() != null && "3".equals(c.getStatus().getId()))
+                .toList();
+        if (!ran.isEmpty()) {
+            Submission submission = submissionService.findById(submissionId)
+                    .orElseThrow(() -> new RuntimeException("Submission not found: " + submissionId));
+            Map<String, Testcase> testCases = new HashMap<>();
+            for (Testcase testCase : testcaseService.findByQuestionId(submission.getQuestion().getId())) {
+                testCases.put(testCase.getId(), testCase);
+            }
+
+            for (JudgeCallback callback : ran) {
+                Testcase testCase = testCases.get(callback.getTestCaseId());
+                if (testCase == null) {
+                    continue;
+                }
+                try {
+                    byte[] stdout = OutputCheckService.decodeStdout(callback.getStdout(), !callback.isPlainStdout());
+                    if (!outputCheckService.accepts(testCase.getQuestion(), testCase, stdout)) {
+                        callback.setStatus(wrongAnswer());
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Checking test case {} of submission {} failed: {}", testCase.getId(), submissionId, e.getMessage());
+                    callback.setStatus(JudgeStatus.builder().id("13").description("Internal Error").build());
+                }
+            }
+        }
+        callbacks.forEach(callback -> callback.setStdout(null));
+    }
+
+    private static JudgeStatus wrongAnswer() {
+        return JudgeStatus.builder().id("4").description("Wrong Answer").build();
+    }
+
+    static boolean isTerminal(JudgeResponse response) {
+        if (response == null || response.getStatus() == null) {
+            return false;
+        }
+        String statusId = response.getStatus().getId();
+        return !"1".equals(statusId) && !"2".equals(statusId);
+    }
 
     private void submitToJudge0(Submission submission, List<Testcase> testCases) {
-        System.out.println("in submit tp judge 0");
+        Question question = testCases.get(0).getQuestion();
+        if (question != null && question.isStopOnFirstFailure()) {
+            FailFastPlan plan = new FailFastPlan(submission, testcaseOrdering.order(question.getId(), testCases), initialWaveSize);
+            failFastPlans.put(submission.getId(), plan);
+            submitNextWave(plan);
+            return;
+        }
+        submitWave(submission, testCases);
+    }
+
+    private boolean submitWave(Submission submission, List<Testcase> testCases) {
         List<JudgeSubmission> submissions = new ArrayList<>();
         List<String> testCaseIds = new ArrayList<>();
 
         for (Testcase testCase : testCases) {
-            // Include submission ID and test case ID in the callback URL
-            String enhancedCallbackUrl = callbackUrl + "?submissionId=" + submission.getId() + "&testCaseId=" + testCase.getId();
-            System.out.println("Enhanced callback URL: " + enhancedCallbackUrl); // Debug log
+            // Include submission ID and test case ID in the callback URL; in poll mode the reconciler collects verdicts instead
+            String enhancedCallbackUrl = callbacksEnabled
+                    ? callbackUrl + "?submissionId=" + submission.getId() + "&testCaseId=" + testCase.getId()
+                    : null;
 
             JudgeSubmission judgeSubmission = JudgeSubmission.builder()
                     .languageId(submission.getLanguageId())
                     .sourceCode(submission.getDescription())
                     .input((testCase.getInput()))
-                    .output((testCase.getExpectedOutput()))
+                    .inputBlob(inputBlob(testCase))
+                    .encodedPayload(judgePayloadCache.fragmentFor(testCase))
                     .runtime(BigDecimal.valueOf(Math.min(testCase.getRuntime(), 20.0)))
                     .callback(enhancedCallbackUrl)  // Use the enhanced callback URL
                     .build();
@@ -213,34 +526,150 @@ public class CodeExecutionService {
         }
 
         try {
-            String url = judge0Uri + "/submissions/batch?base64_encoded=false&wait=true";
-            HttpHeaders headers = createHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            ObjectMapper mapper = new ObjectMapper();
+            List<JudgeToken> tokens = submitWhenAvailable(submissions);
+            storeTokens(submission.getId(), tokens, testCaseIds);
+            return true;
+        } catch (Exception e) {
+            log.error("Error submitting to Judge0: {}", e.getMessage(), e);
+            // submitWhenAvailable already waited out a busy judge, so this submission would never finish
+            failSubmission(submission.getId());
+            return false;
+        }
+    }
 
-            BatchSubmissionRequest batchRequest = new BatchSubmissionRequest(submissions);
-            String rawJson = mapper.writeValueAsString(batchRequest);
-            HttpEntity<String> entity = new HttpEntity<>(rawJson, headers);
-            System.out.println("Raw JSON for batch submission: " + rawJson);
+    /**
+     * The submission is already accepted, so a busy judge is waited out rather than failing it.
+     * Holding the scheduler worker meanwhile is what pushes back on new submissions.
+     */
+    private List<JudgeToken> submitWhenAvailable(List<JudgeSubmission> submissions) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + submitRetryMs;
+        while (true) {
+            try {
+                return judgeClient.submitBatch(submissions);
+            } catch (JudgeBusyException e) {
+                long waitMs = Math.min(e.getRetryAfterSeconds() * 1000, deadline - System.currentTimeMillis());
+                if (waitMs <= 0) {
+                    throw e;
+                }
+                Thread.sleep(waitMs);
+            }
+        }
+    }
 
-            ResponseEntity<JudgeToken[]> response = restTemplate.postForEntity(url, entity, JudgeToken[].class);
+    private void submitNextWave(FailFastPlan plan) {
+        if (!submissionService.claimFailFast(plan.submission.getId(), nodeId, failFastLeaseMs)) {
+            // Another node took the plan over after our lease ran out
+            failFastPlans.remove(plan.submission.getId());
+            return;
+        }
+        List<Testcase> wave = new ArrayList<>();
+        synchronized (plan) {
+            while (wave.size() < plan.nextWaveSize && !plan.remaining.isEmpty()) {
+                wave.add(plan.remaining.poll());
+            }
+            plan.outstanding = wave.size();
+            plan.nextWaveSize = Math.min(plan.nextWaveSize * 2, maxWaveSize);
+        }
 
-            if (response.getStatusCode() == HttpStatus.CREATED && response.getBody() != null) {
-                storeTokens(submission.getId(), response.getBody(), testCaseIds);
+        if (!submitWave(plan.submission, wave)) {
+            failFastPlans.remove(plan.submission.getId());
+        }
+    }
+
+    /**
+     * Called after every group of verdicts. A failure skips everything not yet sent;
+     * otherwise the next wave goes out once the current one has fully reported.
+     */
+    private void advanceFailFast(String submissionId, int verdicts, boolean anyFailed) {
+        FailFastPlan plan = failFastPlans.get(submissionId);
+        if (plan == null) {
+            return;
+        }
+
+        List<Testcase> skipped;
+        synchronized (plan) {
+            plan.outstanding -= verdicts;
+            if (!anyFailed && plan.outstanding > 0) {
+                return;
+            }
+            if (!anyFailed && !plan.remaining.isEmpty()) {
+                // Off the callback thread: the submit is a Judge0 round trip
+                Thread.ofVirtual().name("fail-fast-" + submissionId).start(() -> submitNextWave(plan));
+                return;
             }
+            failFastPlans.remove(submissionId);
+            skipped = new ArrayList<>(plan.remaining);
+            plan.remaining.clear();
+        }
 
-        } catch (Exception e) {
-            log.error("Error submitting to Judge0: {}", e.getMessage(), e);
-            updateSubmissionStatus(submission.getId());
+        if (!skipped.isEmpty()) {
+            processCallbacks(submissionId, skippedCallbacks(submissionId, skipped));
+        }
+    }
+
+    private List<JudgeCallback> skippedCallbacks(String submissionId, List<Testcase> testCases) {
+        List<JudgeCallback> callbacks = new ArrayList<>(testCases.size());
+        for (Testcase testCase : testCases) {
+            callbacks.add(JudgeCallback.builder()
+                    .submissionId(submissionId)
+                    .testCaseId(testCase.getId())
+                    .status(JudgeStatus.builder().id(SKIPPED_STATUS_ID).description("Skipped").build())
+                    .build());
+        }
+        return callbacks;
+    }
+
+    /**
+     * Used by the reconciler for submissions with no verdicts outstanding that are still
+     * pending, e.g. a fail-fast submission whose wave plan was lost in a restart.
+     * Continues from what is recorded: skips the rest after a failure, otherwise sends the next wave.
+     */
+    public void resumeStalled(String submissionId) {
+        if (failFastPlans.containsKey(submissionId)) {
+            return;
+        }
+        Submission submission = submissionService.findById(submissionId).orElse(null);
+        if (submission == null) {
+            return;
+        }
+
+        List<Testcase> testCases = testcaseService.findByQuestionId(submission.getQuestion().getId());
+        Question question = testCases.isEmpty() ? null : testCases.get(0).getQuestion();
+        if (question == null || !question.isStopOnFirstFailure()) {
+            recountSubmissionStatus(submissionId);
+            return;
+        }
+
+        Set<String> recorded = new HashSet<>();
+        boolean anyFailed = false;
+        for (SubmissionResult result : submissionResultService.findBySubmissionId(submissionId)) {
+            recorded.add(result.getTestcase().getId());
+            anyFailed |= !PASSED_STATUS.equals(result.getStatus());
+        }
+        // Nothing recorded means the submission may still be waiting in the scheduler queue
+        if (recorded.isEmpty()) {
+            return;
+        }
+
+        List<Testcase> unjudged = testCases.stream().filter(t -> !recorded.contains(t.getId())).toList();
+        if (unjudged.isEmpty()) {
+            recountSubmissionStatus(submissionId);
+        } else if (anyFailed) {
+            processCallbacks(submissionId, skippedCallbacks(submissionId, unjudged));
+        } else if (submissionService.claimFailFast(submissionId, nodeId, failFastLeaseMs)) {
+            // Without the lease another node may be sending this very wave right now
+            FailFastPlan plan = new FailFastPlan(submission, testcaseOrdering.order(question.getId(), unjudged), initialWaveSize);
+            failFastPlans.put(submissionId, plan);
+            submitNextWave(plan);
         }
     }
     // The storeTokens method remains the same for batch processing.
-    private void storeTokens(String submissionId, JudgeToken[] tokens, List<String> testCaseIds) {
+    private void storeTokens(String submissionId, List<JudgeToken> tokens, List<String> testCaseIds) {
         new SubmissionToken();
         SubmissionToken submissionToken;
-        for (int i = 0; i < tokens.length && i < testCaseIds.size(); i++) {
+        for (int i = 0; i < tokens.size() && i < testCaseIds.size(); i++) {
             submissionToken = SubmissionToken.builder()
-                    .token(tokens[i].getToken())
+                    .token(tokens.get(i).getToken())
                     .submission(Submission.builder().id(submissionId).build())
                     .testcase(Testcase.builder().id(testCaseIds.get(i)).build())
                     .build();
@@ -248,47 +677,71 @@ public class CodeExecutionService {
         }
     }
 
-    private void updateSubmissionStatus(String submissionId) {
-        List<SubmissionResult> results = submissionResultService.findBySubmissionId(submissionId);
-
-        if (!results.isEmpty()) {
-            long passed = results.stream()
-                    .filter(r -> "success".equals(r.getStatus()))
-                    .count();
-
-            long failed = results.size() - passed;
+    private void applyProgress(String submissionId, int passed, int failed) {
+        SubmissionProgress progress = progressTracker.record(submissionId, passed, failed);
+        if (progress == null) {
+            recountSubmissionStatus(submissionId);
+            return;
+        }
 
-            Submission submission = submissionService.findById(submissionId).orElse(null);
-            if (submission != null) {
-                submission.setTestcasesPassed((int) passed); // Corrected method name
-                submission.setTestcasesFailed((int) failed); // Corrected method name
-                submission.setStatus("COMPLETED");
-                submissionService.saveSubmission(submission);
-            }
+        boolean complete = progress.isComplete();
+        submissionService.updateProgress(submissionId, progress.passed(), progress.failed(), complete ? "COMPLETED" : "PENDING");
+        statusBoard.update(submissionId, progress.passed(), progress.failed(), complete ? "COMPLETED" : "PENDING");
+        if (complete) {
+            progressTracker.remove(submissionId);
+            submissionTokenService.deleteBySubmissionId(submissionId);
+            verdictCache.complete(submissionId);
+            scoringService.onCompleted(submissionId, progress.passed(), progress.failed());
         }
     }
 
+    /**
+     * Slow path for submissions the tracker does not know about: rebuilds the counts from
+     * the stored results and compares them with the question's test case count.
+     */
+    private void recountSubmissionStatus(String submissionId) {
+        Submission submission = submissionService.findById(submissionId).orElse(null);
+        if (submission == null) {
+            return;
+        }
 
-
-
-    private HttpHeaders createHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        if (judge0Uri.contains("rapidapi")) {
-            headers.set("x-rapidapi-host", "judge0-ce.p.rapidapi.com");
-            headers.set("x-rapidapi-key", judge0Token);
-        } else {
-            headers.set("Authorization", "Bearer " + judge0Token);
+        long total = submissionResultService.countBySubmissionId(submissionId);
+        long passed = submissionResultService.countBySubmissionIdAndStatus(submissionId, PASSED_STATUS);
+        long expected = testcaseService.countByQuestionId(submission.getQuestion().getId());
+
+        boolean complete = total >= expected;
+        // Verdicts of a wave already in flight may still arrive after a submission failed
+        String status = complete ? "COMPLETED" : "FAILED".equals(submission.getStatus()) ? "FAILED" : "PENDING";
+        submissionService.updateProgress(submissionId, (int) passed, (int) (total - passed), status);
+        statusBoard.update(submissionId, (int) passed, (int) (total - passed), status);
+        if (complete) {
+            submissionTokenService.deleteBySubmissionId(submissionId);
+            scoringService.onCompleted(submissionId, (int) passed, (int) (total - passed));
         }
+    }
 
-        return headers;
+    /**
+     * Gives up on a submission the judge will never finish, e.g. one whose submit kept failing.
+     * The verdicts recorded so far are kept; FAILED is terminal, so the reconciler leaves it alone.
+     */
+    public void failSubmission(String submissionId) {
+        failFastPlans.remove(submissionId);
+        progressTracker.remove(submissionId);
+        verdictCache.discard(submissionId);
+
+        long total = submissionResultService.countBySubmissionId(submissionId);
+        long passed = submissionResultService.countBySubmissionIdAndStatus(submissionId, PASSED_STATUS);
+        submissionService.updateProgress(submissionId, (int) passed, (int) (total - passed), "FAILED");
+        statusBoard.update(submissionId, (int) passed, (int) (total - passed), "FAILED");
+        submissionTokenService.deleteBySubmissionId(submissionId);
     }
+
     private String mapStatus(String statusId) {
         return switch (statusId) {
+            case SKIPPED_STATUS_ID -> "skipped";
             case "1" -> "In Queue";
             case "2" -> "Processing";
-            case "3" -> "success";
+            case "3" -> PASSED_STATUS;
             case "4" -> "wrong answer";
             case "5" -> "Time Limit Exceeded";
             case "6" -> "Compilation error";
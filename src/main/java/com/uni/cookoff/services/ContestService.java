@@ -30,6 +30,10 @@ public class ContestService {
         return contestRepository.findActiveContestsAtTime(LocalDateTime.now());
     }
 
+    public List<Contest> getEnabledContests() {
+        return contestRepository.findByIsActiveTrue();
+    }
+
     public Optional<Contest> getActiveContestByRound(int roundNumber) {
         return contestRepository.findByRoundNumberAndIsActiveTrue(roundNumber);
     }
@@ -0,0 +1,62 @@
+package com.uni.cookoff.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+        private long fullAt;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.updatedAt = now;
+            this.fullAt = now;
+        }
+    }
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryAcquire(String key, int capacity, double tokensPerSecond) {
+        long now = System.currentTimeMillis();
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        synchronized (bucket) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) / 1000.0 * tokensPerSecond);
+            bucket.updatedAt = now;
+
+            if (bucket.tokens < 1) {
+                return (long) Math.ceil((1 - bucket.tokens) / tokensPerSecond * 1000);
+            }
+            bucket.tokens -= 1;
+            bucket.fullAt = now + (long) Math.ceil((capacity - bucket.tokens) / tokensPerSecond * 1000);
+            return 0;
+        }
+    }
+
+    @Override
+    public void release(String key, int capacity) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        synchronized (bucket) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+        }
+    }
+
+    // A bucket that has refilled completely is indistinguishable from a new one
+    @Scheduled(fixedDelay = 60000)
+    public void evictFull() {
+        long now = System.currentTimeMillis();
+        buckets.values().removeIf(bucket -> bucket.fullAt <= now);
+    }
+}
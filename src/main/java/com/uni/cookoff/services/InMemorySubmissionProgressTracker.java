@@ -0,0 +1,64 @@
+package com.uni.cookoff.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entries are removed when a submission completes or fails. Submissions that do neither
+ * (queued work lost in a shutdown, plans lost in a restart) expire after {@code ttl-ms},
+ * like the Redis hashes do; the slow recount path still handles them afterwards.
+ */
+@Component
+@ConditionalOnProperty(name = "submission.progress.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySubmissionProgressTracker implements SubmissionProgressTracker {
+
+    private static final class Counters {
+        private final int expected;
+        private final long registeredAt = System.currentTimeMillis();
+        private int passed;
+        private int failed;
+
+        private Counters(int expected) {
+            this.expected = expected;
+        }
+    }
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @Value("${submission.progress.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Override
+    public void register(String submissionId, int expected) {
+        counters.put(submissionId, new Counters(expected));
+    }
+
+    @Override
+    public SubmissionProgress record(String submissionId, int passed, int failed) {
+        Counters entry = counters.get(submissionId);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            entry.passed += passed;
+            entry.failed += failed;
+            return new SubmissionProgress(entry.passed, entry.failed, entry.expected);
+        }
+    }
+
+    @Override
+    public void remove(String submissionId) {
+        counters.remove(submissionId);
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void purge() {
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        counters.values().removeIf(entry -> entry.registeredAt < cutoff);
+    }
+}
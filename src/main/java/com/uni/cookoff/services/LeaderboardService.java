@@ -0,0 +1,547 @@
+package com.uni.cookoff.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uni.cookoff.dto.response.LeaderboardEntry;
+import com.uni.cookoff.dto.response.LeaderboardPage;
+import com.uni.cookoff.models.User;
+import com.uni.cookoff.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The leaderboard lives in Redis: a sorted set of user id by score, one more per round,
+ * and a hash with what each entry shows. It is updated whenever a user is saved, so
+ * leaderboard requests are served with ZREVRANGE plus one HMGET and never reach MySQL.
+ * Rebuilt from the users table at startup and through the admin API.
+ * Ranks come from ZCOUNT/ZCARD, or with {@code leaderboard.rank.store=memory} from an
+ * in-process {@link RankIndex} fed by the same updates (single-node deployments only).
+ * Pages are ordered by (score DESC, user id DESC), which is how Redis orders ties, and
+ * continue from an opaque (score, id) cursor.
+ */
+@Service
+@Slf4j
+public class LeaderboardService {
+
+    static final String SCORES_KEY = "leaderboard:scores";
+    static final String USERS_KEY = "leaderboard:users";
+    private static final String ROUNDS_KEY = "leaderboard:rounds";
+    private static final String ROUND_KEY_PREFIX = "leaderboard:round:";
+    private static final String REBUILD_PREFIX = "leaderboard:rebuild:";
+    // Bumped with every change, so snapshots on any node can tell they are stale
+    private static final String VERSION_KEY = "leaderboard:version";
+    // Number of rebuilds in progress; expires in case a node dies mid-rebuild
+    private static final String REBUILDS_RUNNING_KEY = "leaderboard:rebuilds-running";
+    // User id -> number of writes made while a rebuild was running
+    private static final String REBUILD_TOUCHED_KEY = "leaderboard:rebuild-touched";
+    private static final long REBUILD_MARKER_TTL_MS = 600000;
+    private static final int MAX_REAPPLY_PASSES = 5;
+
+    // Run first in every writer's pipeline: records the users it is about to write while a rebuild runs
+    private static final String TOUCH_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+              for i = 1, #ARGV do
+                redis.call('HINCRBY', KEYS[2], ARGV[i], 1)
+              end
+              redis.call('PEXPIRE', KEYS[2], redis.call('PTTL', KEYS[1]))
+            end
+            return 0
+            """;
+
+    private static final RedisScript<Long> BEGIN_REBUILD_SCRIPT = new DefaultRedisScript<>("""
+            local running = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return running
+            """, Long.class);
+
+    // The last rebuild to finish clears the touched users; earlier ones leave them for the rest
+    private static final RedisScript<Long> END_REBUILD_SCRIPT = new DefaultRedisScript<>("""
+            local running = redis.call('DECR', KEYS[1])
+            if running <= 0 then
+              redis.call('DEL', KEYS[1], KEYS[2])
+            end
+            return running
+            """, Long.class);
+
+    record Meta(String name, String regNo, int roundQualified) {
+    }
+
+    /** Competition rank (ties share a rank; 0 when not ranked) out of all ranked users. */
+    public record Rank(int rank, int total) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final RankIndex rankIndex = new RankIndex();
+
+    @Value("${leaderboard.rank.store:redis}")
+    private String rankStore;
+
+    @Value("${leaderboard.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${leaderboard.page.max-size:200}")
+    private int maxPageSize;
+
+    private record Cursor(double score, String userId) {
+    }
+
+    public LeaderboardService(StringRedisTemplate redisTemplate, UserRepository userRepository, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            log.info("Leaderboard rebuilt with {} users", rebuild());
+        } catch (Exception e) {
+            log.error("Could not rebuild the leaderboard: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuilds every key under temporary names and renames them into place, so readers
+     * never see a half-built leaderboard. Returns the number of users on it.
+     * Writes that land between reading the users table and the rename would be overwritten
+     * by the older snapshot, so while a rebuild runs every writer records the users it
+     * touches, and those users are re-read from the table and written again after the rename.
+     */
+    public int rebuild() {
+        redisTemplate.execute(BEGIN_REBUILD_SCRIPT, List.of(REBUILDS_RUNNING_KEY), String.valueOf(REBUILD_MARKER_TTL_MS));
+        try {
+            int users = rebuildFromSnapshot();
+            reapplyTouched();
+            return users;
+        } finally {
+            redisTemplate.execute(END_REBUILD_SCRIPT, List.of(REBUILDS_RUNNING_KEY, REBUILD_TOUCHED_KEY));
+        }
+    }
+
+    private int rebuildFromSnapshot() {
+        List<UserRepository.LeaderboardRow> rows = userRepository.findLeaderboardRows();
+        Set<String> rounds = new HashSet<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (UserRepository.LeaderboardRow row : rows) {
+            rounds.add(String.valueOf(row.getRoundQualified()));
+            scores.put(row.getId(), row.getScore());
+        }
+        if (memoryRanks()) {
+            rankIndex.replaceAll(scores);
+        }
+        Set<String> previousRounds = redisTemplate.opsForSet().members(ROUNDS_KEY);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.del(REBUILD_PREFIX + SCORES_KEY, REBUILD_PREFIX + USERS_KEY, REBUILD_PREFIX + ROUNDS_KEY);
+            for (String round : rounds) {
+                redis.del(REBUILD_PREFIX + ROUND_KEY_PREFIX + round);
+            }
+            for (UserRepository.LeaderboardRow row : rows) {
+                redis.zAdd(REBUILD_PREFIX + SCORES_KEY, row.getScore(), row.getId());
+                redis.zAdd(REBUILD_PREFIX + ROUND_KEY_PREFIX + row.getRoundQualified(), row.getScore(), row.getId());
+                redis.hSet(REBUILD_PREFIX + USERS_KEY, row.getId(),
+                        toJson(new Meta(row.getName(), row.getRegNo(), row.getRoundQualified())));
+            }
+            for (String round : rounds) {
+                redis.sAdd(REBUILD_PREFIX + ROUNDS_KEY, round);
+            }
+            return null;
+        });
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            if (rows.isEmpty()) {
+                redis.del(SCORES_KEY, USERS_KEY, ROUNDS_KEY);
+            } else {
+                redis.rename(REBUILD_PREFIX + SCORES_KEY, SCORES_KEY);
+                redis.rename(REBUILD_PREFIX + USERS_KEY, USERS_KEY);
+                redis.rename(REBUILD_PREFIX + ROUNDS_KEY, ROUNDS_KEY);
+            }
+            for (String round : rounds) {
+                redis.rename(REBUILD_PREFIX + ROUND_KEY_PREFIX + round, ROUND_KEY_PREFIX + round);
+            }
+            if (previousRounds != null) {
+                for (String round : previousRounds) {
+                    if (!rounds.contains(round)) {
+                        redis.del(ROUND_KEY_PREFIX + round);
+                    }
+                }
+            }
+            redis.incr(VERSION_KEY);
+            return null;
+        });
+        return rows.size();
+    }
+
+    /**
+     * Writes the touched users again from the users table until a pass finds no user touched
+     * since the pass before, so a write racing a re-apply is re-applied as well.
+     */
+    private void reapplyTouched() {
+        Map<Object, Object> seen = Map.of();
+        for (int pass = 0; pass < MAX_REAPPLY_PASSES; pass++) {
+            Map<Object, Object> touched = redisTemplate.opsForHash().entries(REBUILD_TOUCHED_KEY);
+            List<String> changed = new ArrayList<>();
+            for (Map.Entry<Object, Object> entry : touched.entrySet()) {
+                if (!entry.getValue().equals(seen.get(entry.getKey()))) {
+                    changed.add((String) entry.getKey());
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+
+            Map<String, User> users = new HashMap<>();
+            userRepository.findAllById(changed).forEach(user -> users.put(user.getId(), user));
+            for (String userId : changed) {
+                User user = users.get(userId);
+                if (user != null) {
+                    write(user, false);
+                } else {
+                    delete(userId, false);
+                }
+            }
+            seen = touched;
+        }
+        log.warn("Leaderboard entries were still changing after {} re-apply passes; the next update of each repairs it",
+                MAX_REAPPLY_PASSES);
+    }
+
+    /**
+     * Puts the user's current score, round and details on the leaderboard; banned users are taken off.
+     */
+    public void upsert(User user) {
+        write(user, true);
+    }
+
+    private void write(User user, boolean track) {
+        if (memoryRanks()) {
+            if (user.isBanned()) {
+                rankIndex.remove(user.getId());
+            } else {
+                rankIndex.update(user.getId(), user.getScore());
+            }
+        }
+        try {
+            Meta previous = fromJson((String) redisTemplate.opsForHash().get(USERS_KEY, user.getId()));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                if (track) {
+                    touch(redis, List.of(user.getId()));
+                }
+                if (previous != null && (user.isBanned() || previous.roundQualified() != user.getRoundQualified())) {
+                    redis.zRem(ROUND_KEY_PREFIX + previous.roundQualified(), user.getId());
+                }
+                redis.incr(VERSION_KEY);
+                if (user.isBanned()) {
+                    redis.zRem(SCORES_KEY, user.getId());
+                    redis.hDel(USERS_KEY, user.getId());
+                    return null;
+                }
+                redis.zAdd(SCORES_KEY, user.getScore(), user.getId());
+                redis.zAdd(ROUND_KEY_PREFIX + user.getRoundQualified(), user.getScore(), user.getId());
+                redis.sAdd(ROUNDS_KEY, String.valueOf(user.getRoundQualified()));
+                redis.hSet(USERS_KEY, user.getId(), toJson(new Meta(user.getName(), user.getRegNo(), user.getRoundQualified())));
+                return null;
+            });
+        } catch (Exception e) {
+            // The next rebuild repairs it; a save must not fail because the leaderboard could not be updated
+            log.warn("Could not update leaderboard entry of user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sets users' entries to the given scores, read from the users table in the transaction
+     * that changed them. Scores are set rather than added and only ever raised (ZADD GT), so
+     * a rebuild that read the users table after that commit does not count the change twice,
+     * and a flush on another node that wrote a later total is not undone. A rebuild that read
+     * the table before the commit is repaired by its re-apply pass, see {@link #rebuild}.
+     * Users not on the leaderboard (banned, or saved while Redis was unreachable) are left for
+     * the next rebuild.
+     */
+    public void raiseScores(Map<String, Double> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> userIds = new ArrayList<>(scores.keySet());
+            List<Object> metas = redisTemplate.opsForHash().multiGet(USERS_KEY, userIds);
+            List<String> ranked = new ArrayList<>(userIds.size());
+            List<Meta> rankedMetas = new ArrayList<>(userIds.size());
+            for (int i = 0; i < userIds.size(); i++) {
+                Meta meta = fromJson((String) metas.get(i));
+                if (meta != null) {
+                    ranked.add((String) userIds.get(i));
+                    rankedMetas.add(meta);
+                }
+            }
+            if (ranked.isEmpty()) {
+                return;
+            }
+            RedisZSetCommands.ZAddArgs raiseOnly = RedisZSetCommands.ZAddArgs.empty().gt();
+
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                touch(redis, ranked);
+                for (int i = 0; i < ranked.size(); i++) {
+                    String userId = ranked.get(i);
+                    double score = scores.get(userId);
+                    redis.zAdd(SCORES_KEY, score, userId, raiseOnly);
+                    redis.zAdd(ROUND_KEY_PREFIX + rankedMetas.get(i).roundQualified(), score, userId, raiseOnly);
+                    redis.zScore(SCORES_KEY, userId);
+                }
+                redis.incr(VERSION_KEY);
+                return null;
+            });
+
+            if (memoryRanks()) {
+                // Replies: the touch script, then ZADD, ZADD, ZSCORE per user
+                for (int i = 0; i < ranked.size(); i++) {
+                    Double score = (Double) replies.get(1 + i * 3 + 2);
+                    if (score != null) {
+                        rankIndex.update(ranked.get(i), score);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not update the leaderboard scores of {} users: {}", scores.size(), e.getMessage());
+        }
+    }
+
+    // Must come before the writes it covers, so a rebuild that misses the mark also read the users table after them
+    private static void touch(StringRedisConnection redis, List<String> userIds) {
+        String[] keysAndArgs = new String[userIds.size() + 2];
+        keysAndArgs[0] = REBUILDS_RUNNING_KEY;
+        keysAndArgs[1] = REBUILD_TOUCHED_KEY;
+        for (int i = 0; i < userIds.size(); i++) {
+            keysAndArgs[i + 2] = userIds.get(i);
+        }
+        redis.eval(TOUCH_SCRIPT, ReturnType.INTEGER, 2, keysAndArgs);
+    }
+
+    public void remove(String userId) {
+        delete(userId, true);
+    }
+
+    private void delete(String userId, boolean track) {
+        if (memoryRanks()) {
+            rankIndex.remove(userId);
+        }
+        try {
+            Meta previous = fromJson((String) redisTemplate.opsForHash().get(USERS_KEY, userId));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                if (track) {
+                    touch(redis, List.of(userId));
+                }
+                if (previous != null) {
+                    redis.zRem(ROUND_KEY_PREFIX + previous.roundQualified(), userId);
+                }
+                redis.zRem(SCORES_KEY, userId);
+                redis.hDel(USERS_KEY, userId);
+                redis.incr(VERSION_KEY);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not remove user {} from the leaderboard: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * A page of everyone not banned, or of the users qualified for {@code round}, from Redis.
+     * The cursor is resolved with ZSCORE and ZREVRANK; if its user's score has changed since,
+     * the page restarts at the first user with that score, so rows may repeat but are never skipped.
+     */
+    public LeaderboardPage page(Integer round, String cursor, Integer size) {
+        String key = round == null ? SCORES_KEY : ROUND_KEY_PREFIX + round;
+        int limit = pageSize(size);
+        long start = 0;
+        if (cursor != null) {
+            Cursor after = decode(cursor);
+            Double current = redisTemplate.opsForZSet().score(key, after.userId());
+            Long rank = current != null && current == after.score()
+                    ? redisTemplate.opsForZSet().reverseRank(key, after.userId())
+                    : null;
+            if (rank != null) {
+                start = rank + 1;
+            } else {
+                Long above = redisTemplate.opsForZSet().count(key, Math.nextUp(after.score()), Double.POSITIVE_INFINITY);
+                start = above == null ? 0 : above;
+            }
+        }
+        return toPage(range(key, start, start + limit - 1), limit);
+    }
+
+    /** The caller's entry with up to {@code before} entries above and {@code after} below it. */
+    public LeaderboardPage around(String userId, Integer before, Integer after) {
+        Long rank = redisTemplate.opsForZSet().reverseRank(SCORES_KEY, userId);
+        if (rank == null) {
+            return LeaderboardPage.builder().entries(List.of()).build();
+        }
+        int above = Math.min(before == null ? 5 : Math.max(before, 0), maxPageSize);
+        int below = Math.min(after == null ? 5 : Math.max(after, 0), maxPageSize);
+        long start = Math.max(0, rank - above);
+        long end = rank + below;
+        return toPage(range(SCORES_KEY, start, end), (int) (end - start + 1));
+    }
+
+    /**
+     * The same pages straight from MySQL for the admin API: one keyset query over
+     * idx_users_leaderboard selecting only the leaderboard columns.
+     */
+    public LeaderboardPage pageFromDatabase(String cursor, Integer size) {
+        int limit = pageSize(size);
+        PageRequest first = PageRequest.of(0, limit);
+        List<UserRepository.LeaderboardRow> rows;
+        if (cursor == null) {
+            rows = userRepository.findLeaderboardFirstPage(first);
+        } else {
+            Cursor after = decode(cursor);
+            rows = userRepository.findLeaderboardPageAfter(after.score(), after.userId(), first);
+        }
+
+        List<LeaderboardEntry> entries = new ArrayList<>(rows.size());
+        for (UserRepository.LeaderboardRow row : rows) {
+            entries.add(LeaderboardEntry.builder()
+                    .userId(row.getId())
+                    .name(row.getName())
+                    .regNo(row.getRegNo())
+                    .score(row.getScore())
+                    .roundQualified(row.getRoundQualified())
+                    .build());
+        }
+        return toPage(entries, limit);
+    }
+
+    private int pageSize(Integer size) {
+        return size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+
+    private LeaderboardPage toPage(List<LeaderboardEntry> entries, int limit) {
+        String next = null;
+        if (entries.size() >= limit && !entries.isEmpty()) {
+            LeaderboardEntry last = entries.get(entries.size() - 1);
+            next = encode(new Cursor(last.getScore(), last.getUserId()));
+        }
+        return LeaderboardPage.builder().entries(entries).nextCursor(next).build();
+    }
+
+    private static String encode(Cursor cursor) {
+        String raw = cursor.score() + ":" + cursor.userId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            return new Cursor(Double.parseDouble(raw.substring(0, colon)), raw.substring(colon + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * O(log n) either way: the tree walk of {@link RankIndex}, or ZSCORE followed by a
+     * pipelined ZCOUNT of strictly higher scores and ZCARD.
+     */
+    public Rank rankOf(String userId) {
+        if (memoryRanks()) {
+            return new Rank(rankIndex.rankOf(userId), rankIndex.size());
+        }
+        Double score = redisTemplate.opsForZSet().score(SCORES_KEY, userId);
+        if (score == null) {
+            Long total = redisTemplate.opsForZSet().zCard(SCORES_KEY);
+            return new Rank(0, total == null ? 0 : total.intValue());
+        }
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.zCount(SCORES_KEY, Math.nextUp(score), Double.POSITIVE_INFINITY);
+            redis.zCard(SCORES_KEY);
+            return null;
+        });
+        return new Rank(((Long) replies.get(0)).intValue() + 1, ((Long) replies.get(1)).intValue());
+    }
+
+    /** Monotonically increasing across nodes; 0 before the first change. */
+    public long version() {
+        String version = redisTemplate.opsForValue().get(VERSION_KEY);
+        return version == null ? 0 : Long.parseLong(version);
+    }
+
+    private boolean memoryRanks() {
+        return "memory".equals(rankStore);
+    }
+
+    private List<LeaderboardEntry> range(String key, long start, long end) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(key, start, end);
+        if (tuples == null || tuples.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> ids = new ArrayList<>(tuples.size());
+        tuples.forEach(tuple -> ids.add(tuple.getValue()));
+        List<Object> metas = redisTemplate.opsForHash().multiGet(USERS_KEY, ids);
+
+        List<LeaderboardEntry> entries = new ArrayList<>(tuples.size());
+        int i = 0;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            Meta meta = fromJson((String) metas.get(i++));
+            if (meta == null) {
+                continue;
+            }
+            entries.add(LeaderboardEntry.builder()
+                    .userId(tuple.getValue())
+                    .name(meta.name())
+                    .regNo(meta.regNo())
+                    .score(tuple.getScore() == null ? 0 : tuple.getScore())
+                    .roundQualified(meta.roundQualified())
+                    .build());
+        }
+        return entries;
+    }
+
+    private String toJson(Meta meta) {
+        try {
+            return objectMapper.writeValueAsString(meta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Meta fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, Meta.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable leaderboard entry: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.uni.cookoff.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * First leaderboard page of every round, already serialized (and gzipped), so the polling
+ * most clients do is answered from memory, usually with a 304.
+ * Each snapshot carries the leaderboard version it was built from. A change anywhere bumps
+ * the version, and stale snapshots are rebuilt at most once per {@code min-interval-ms}.
+ * The ETag is a hash of the serialized page rather than the version, so every node hands out
+ * the same tag for the same bytes even when the version moved while a node was building.
+ * Snapshots are built on first request; key {@code null} is the overall leaderboard.
+ */
+@Component
+@Slf4j
+public class LeaderboardSnapshots {
+
+    private static final String ALL = "all";
+    // Rounds come from the URL, so unknown ones must not grow the map without bound
+    private static final int MAX_SNAPSHOTS = 64;
+    // 128 bits of the page's SHA-256
+    private static final int ETAG_HASH_CHARS = 32;
+
+    public record Snapshot(long version, String etag, byte[] json, byte[] gzipped) {
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals(gzipEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Strong validators must differ per encoding
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    private final LeaderboardService leaderboardService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Value("${leaderboard.snapshot.gzip:true}")
+    private boolean gzip;
+
+    // Smaller bodies are not worth the gzip header
+    @Value("${leaderboard.snapshot.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    public LeaderboardSnapshots(LeaderboardService leaderboardService, ObjectMapper objectMapper) {
+        this.leaderboardService = leaderboardService;
+        this.objectMapper = objectMapper;
+    }
+
+    public Snapshot get(Integer round) {
+        String key = round == null ? ALL : String.valueOf(round);
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (snapshots.size() >= MAX_SNAPSHOTS) {
+            return build(round, key, leaderboardService.version());
+        }
+        return snapshots.computeIfAbsent(key, k -> build(round, k, leaderboardService.version()));
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot.min-interval-ms:1000}")
+    public void refresh() {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        long version;
+        try {
+            version = leaderboardService.version();
+        } catch (Exception e) {
+            log.warn("Could not read leaderboard version, keeping snapshots: {}", e.getMessage());
+            return;
+        }
+
+        for (Map.Entry<String, Snapshot> entry : snapshots.entrySet()) {
+            if (entry.getValue().version() >= version) {
+                continue;
+            }
+            String key = entry.getKey();
+            try {
+                snapshots.put(key, build(ALL.equals(key) ? null : Integer.valueOf(key), key, version));
+            } catch (Exception e) {
+                log.warn("Could not rebuild leaderboard snapshot {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    // Reads the version before the page, so a change made in between only causes one extra rebuild
+    private Snapshot build(Integer round, String key, long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(leaderboardService.page(round, null, null));
+            byte[] gzipped = gzip && json.length >= gzipMinBytes ? gzip(json) : null;
+            String etag = "\"" + key + "-" + BlobStore.sha256(json).substring(0, ETAG_HASH_CHARS) + "\"";
+            return new Snapshot(version, etag, json, gzipped);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,78 @@
+package com.uni.cookoff.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Fans test case executions out on virtual threads.
+ * Concurrency is capped per request and across the whole node, and results
+ * always come back in the order of the input list.
+ */
+@Component
+public class ParallelRunExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore globalPermits;
+    private final int perRequestLimit;
+
+    public ParallelRunExecutor(@Value("${judge0.run.global-concurrency:64}") int globalLimit,
+                               @Value("${judge0.run.per-request-concurrency:4}") int perRequestLimit) {
+        this.globalPermits = new Semaphore(globalLimit, true);
+        this.perRequestLimit = perRequestLimit;
+    }
+
+    public <T, R> List<R> map(List<T> items, Function<T, R> task) {
+        Semaphore requestPermits = new Semaphore(perRequestLimit);
+        List<Future<R>> futures = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            futures.add(executor.submit(() -> {
+                requestPermits.acquire();
+                try {
+                    globalPermits.acquire();
+                    try {
+                        return task.apply(item);
+                    } finally {
+                        globalPermits.release();
+                    }
+                } finally {
+                    requestPermits.release();
+                }
+            }));
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new RuntimeException("Interrupted while running test cases", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Error running test case", cause);
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
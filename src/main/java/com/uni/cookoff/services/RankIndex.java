@@ -0,0 +1,160 @@
+package com.uni.cookoff.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic treap over (score descending, user id ascending) with subtree sizes,
+ * so updates, rank lookups and the participant count are all O(log n).
+ * Ranks follow competition ranking: a user's rank is one more than the number of users
+ * with a strictly higher score, so tied users share a rank and the next rank is skipped.
+ * Thread-safe; readers and writers share one lock since every operation is short.
+ */
+public class RankIndex {
+
+    private static final class Node {
+        final String userId;
+        final double score;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(String userId, double score) {
+            this.userId = userId;
+            this.score = score;
+        }
+    }
+
+    private final Map<String, Double> scores = new HashMap<>();
+    private Node root;
+
+    public synchronized void update(String userId, double score) {
+        Double previous = scores.put(userId, score);
+        if (previous != null) {
+            // Double.compare, not ==: the tree orders 0.0 and -0.0 apart
+            if (Double.compare(previous, score) == 0) {
+                return;
+            }
+            root = delete(root, previous, userId);
+        }
+        root = insert(root, new Node(userId, score));
+    }
+
+    public synchronized void remove(String userId) {
+        Double previous = scores.remove(userId);
+        if (previous != null) {
+            root = delete(root, previous, userId);
+        }
+    }
+
+    public synchronized void replaceAll(Map<String, Double> entries) {
+        scores.clear();
+        root = null;
+        entries.forEach(this::update);
+    }
+
+    /** Competition rank of the user, or 0 when the user is not indexed. */
+    public synchronized int rankOf(String userId) {
+        Double score = scores.get(userId);
+        return score == null ? 0 : countAbove(score) + 1;
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    private int countAbove(double score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score > score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    // Higher scores sort first; equal scores by user id, so every entry has one position
+    private static int compare(double score, String userId, Node node) {
+        int byScore = Double.compare(node.score, score);
+        return byScore != 0 ? byScore : userId.compareTo(node.userId);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.score, inserted.userId, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        resize(node);
+        return node;
+    }
+
+    private static Node delete(Node node, double score, String userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, userId, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, score, userId);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, score, userId);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, score, userId);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, score, userId);
+            }
+        }
+        resize(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        resize(node);
+        resize(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        resize(node);
+        resize(right);
+        return right;
+    }
+
+    private static void resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
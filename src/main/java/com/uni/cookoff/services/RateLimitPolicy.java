@@ -0,0 +1,78 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.models.Contest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Bucket sizes for the rate-limited endpoints. Defaults come from {@code ratelimit.<endpoint>.*};
+ * the active contest with the highest round can override the per-user rate for its round.
+ * Buckets are keyed by round, so a new round starts everybody with a full bucket.
+ */
+@Component
+@Slf4j
+public class RateLimitPolicy {
+
+    public static final String RUNCODE = "runcode";
+    public static final String SUBMIT = "submit";
+
+    public record Limit(int burst, double perMinute) {
+        public double tokensPerSecond() {
+            return perMinute / 60.0;
+        }
+    }
+
+    public record EndpointLimits(int round, Limit user, Limit ip) {
+    }
+
+    private final ContestService contestService;
+    private final Map<String, EndpointLimits> defaults;
+    private volatile Map<String, EndpointLimits> current;
+
+    public RateLimitPolicy(ContestService contestService,
+                           @Value("${ratelimit.runcode.user-burst:5}") int runcodeUserBurst,
+                           @Value("${ratelimit.runcode.user-per-minute:20}") double runcodeUserPerMinute,
+                           @Value("${ratelimit.runcode.ip-burst:30}") int runcodeIpBurst,
+                           @Value("${ratelimit.runcode.ip-per-minute:120}") double runcodeIpPerMinute,
+                           @Value("${ratelimit.submit.user-burst:3}") int submitUserBurst,
+                           @Value("${ratelimit.submit.user-per-minute:10}") double submitUserPerMinute,
+                           @Value("${ratelimit.submit.ip-burst:20}") int submitIpBurst,
+                           @Value("${ratelimit.submit.ip-per-minute:60}") double submitIpPerMinute) {
+        this.contestService = contestService;
+        this.defaults = Map.of(
+                RUNCODE, new EndpointLimits(0, new Limit(runcodeUserBurst, runcodeUserPerMinute), new Limit(runcodeIpBurst, runcodeIpPerMinute)),
+                SUBMIT, new EndpointLimits(0, new Limit(submitUserBurst, submitUserPerMinute), new Limit(submitIpBurst, submitIpPerMinute)));
+        this.current = defaults;
+    }
+
+    public EndpointLimits limitsFor(String endpoint) {
+        return current.get(endpoint);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ratelimit.round-refresh-ms:30000}")
+    public void refreshRound() {
+        try {
+            Contest contest = contestService.getEnabledContests().stream()
+                    .max((a, b) -> Integer.compare(a.getRoundNumber(), b.getRoundNumber()))
+                    .orElse(null);
+            if (contest == null) {
+                current = defaults;
+                return;
+            }
+            current = Map.of(
+                    RUNCODE, forRound(defaults.get(RUNCODE), contest.getRoundNumber(), contest.getRuncodeRatePerMinute()),
+                    SUBMIT, forRound(defaults.get(SUBMIT), contest.getRoundNumber(), contest.getSubmitRatePerMinute()));
+        } catch (Exception e) {
+            log.warn("Could not refresh rate limits: {}", e.getMessage());
+        }
+    }
+
+    private EndpointLimits forRound(EndpointLimits base, int round, Integer userPerMinute) {
+        Limit user = userPerMinute != null ? new Limit(base.user().burst(), userPerMinute) : base.user();
+        return new EndpointLimits(round, user, base.ip());
+    }
+}
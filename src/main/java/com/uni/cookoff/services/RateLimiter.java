@@ -0,0 +1,20 @@
+package com.uni.cookoff.services;
+
+/**
+ * Token buckets keyed by arbitrary strings.
+ * Selected with {@code ratelimit.store}: {@code memory} (default, per node) or {@code redis} (shared).
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the bucket, creating it full if needed.
+     * Returns 0 when the token was granted, otherwise the milliseconds until one is available.
+     */
+    long tryAcquire(String key, int capacity, double tokensPerSecond);
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was rejected elsewhere.
+     * Does nothing if the bucket no longer exists.
+     */
+    void release(String key, int capacity);
+}
@@ -0,0 +1,67 @@
+package com.uni.cookoff.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps each bucket in a Redis hash so the limits hold across nodes.
+ * The refill uses the Redis clock, so skew between application nodes does not matter.
+ */
+@Component
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // Refill, take a token if there is one, and expire the key once it would be full again
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + (now - ts) / 1000 * rate)
+            local wait = 0
+            if tokens < 1 then
+              wait = math.ceil((1 - tokens) / rate * 1000)
+            else
+              tokens = tokens - 1
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / rate * 1000) + 1000)
+            return wait
+            """, Long.class);
+
+    // Only touches a bucket that still exists; an expired one is already full
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local tokens = tonumber(redis.call('HGET', KEYS[1], 'tokens'))
+            if not tokens then
+              return 0
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(math.min(tonumber(ARGV[1]), tokens + 1)))
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public long tryAcquire(String key, int capacity, double tokensPerSecond) {
+        Long wait = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(KEY_PREFIX + key),
+                String.valueOf(capacity), String.valueOf(tokensPerSecond));
+        return wait == null ? 0 : wait;
+    }
+
+    @Override
+    public void release(String key, int capacity) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), String.valueOf(capacity));
+    }
+}
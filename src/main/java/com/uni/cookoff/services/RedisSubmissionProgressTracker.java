@@ -0,0 +1,64 @@
+package com.uni.cookoff.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the counters in a Redis hash so every node sees the same totals.
+ */
+@Component
+@ConditionalOnProperty(name = "submission.progress.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisSubmissionProgressTracker implements SubmissionProgressTracker {
+
+    private static final String KEY_PREFIX = "submission:progress:";
+    private static final Duration TTL = Duration.ofDays(1);
+
+    // Increment both counters and read the expected total in one round trip
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RECORD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return nil end
+            local passed = redis.call('HINCRBY', KEYS[1], 'passed', ARGV[1])
+            local failed = redis.call('HINCRBY', KEYS[1], 'failed', ARGV[2])
+            local expected = tonumber(redis.call('HGET', KEYS[1], 'expected'))
+            return {passed, failed, expected}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void register(String submissionId, int expected) {
+        String key = KEY_PREFIX + submissionId;
+        redisTemplate.opsForHash().putAll(key, Map.of(
+                "expected", String.valueOf(expected),
+                "passed", "0",
+                "failed", "0"));
+        redisTemplate.expire(key, TTL);
+    }
+
+    @Override
+    public SubmissionProgress record(String submissionId, int passed, int failed) {
+        List<?> totals = redisTemplate.execute(RECORD_SCRIPT, List.of(KEY_PREFIX + submissionId),
+                String.valueOf(passed), String.valueOf(failed));
+        if (totals == null || totals.size() < 3) {
+            return null;
+        }
+        return new SubmissionProgress(
+                ((Number) totals.get(0)).intValue(),
+                ((Number) totals.get(1)).intValue(),
+                ((Number) totals.get(2)).intValue());
+    }
+
+    @Override
+    public void remove(String submissionId) {
+        redisTemplate.delete(KEY_PREFIX + submissionId);
+    }
+}
@@ -0,0 +1,263 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.models.Contest;
+import com.uni.cookoff.models.Question;
+import com.uni.cookoff.models.Submission;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Turns completed submissions into contest score.
+ * A submission is worth the question's points scaled by the share of test cases passed,
+ * minus a per-minute penalty since the round started (never below a floor). Only a user's
+ * best result on a question counts, so a submission adds just its improvement over that best.
+ * New bests are queued and written to MySQL in batches, and the resulting scores are pushed
+ * to the leaderboard. The improvement is worked out inside the write transaction against the
+ * locked stored best, so nodes completing submissions for the same user never count it twice.
+ * The in-memory bests are only a cache that lets most verdicts skip the queue; they may lag
+ * behind other nodes, which only queues an improvement the flush then finds to be worth nothing.
+ */
+@Service
+@Slf4j
+public class ScoringService {
+
+    private record Improvement(String userId, String questionId, double best) {
+
+        String key() {
+            return userId + ":" + questionId;
+        }
+    }
+
+    // What a flush committed: the stored best per improvement key and each changed user's new total
+    private record Flushed(Map<String, Double> bests, Map<String, Double> scores) {
+    }
+
+    private final SubmissionService submissionService;
+    private final ContestService contestService;
+    private final LeaderboardService leaderboardService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Double> bests = new ConcurrentHashMap<>();
+    private final Map<Integer, Optional<LocalDateTime>> roundStarts = new ConcurrentHashMap<>();
+    private final Map<String, Improvement> pending = new ConcurrentHashMap<>();
+
+    @Value("${scoring.penalty.points-per-minute:0}")
+    private double penaltyPerMinute;
+
+    // Share of the earned credit the penalty can never take away
+    @Value("${scoring.penalty.min-fraction:0.5}")
+    private double minFraction;
+
+    public ScoringService(SubmissionService submissionService,
+                          ContestService contestService,
+                          LeaderboardService leaderboardService,
+                          JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate) {
+        this.submissionService = submissionService;
+        this.contestService = contestService;
+        this.leaderboardService = leaderboardService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Called whenever a submission reaches COMPLETED. Safe to call more than once for the
+     * same submission: a repeat never beats the best it already set.
+     */
+    public void onCompleted(String submissionId, int passed, int failed) {
+        Submission submission = submissionService.findById(submissionId).orElse(null);
+        if (submission == null || submission.getUser() == null || submission.getQuestion() == null) {
+            return;
+        }
+        double score = score(submission, passed, failed);
+        if (score <= 0) {
+            return;
+        }
+
+        String userId = submission.getUser().getId();
+        String questionId = submission.getQuestion().getId();
+        String key = userId + ":" + questionId;
+        if (!bests.containsKey(key)) {
+            bests.putIfAbsent(key, loadBest(userId, questionId));
+        }
+
+        boolean[] improved = {false};
+        bests.compute(key, (k, current) -> {
+            if (score > current) {
+                improved[0] = true;
+                return score;
+            }
+            return current;
+        });
+        if (improved[0]) {
+            queue(new Improvement(userId, questionId, score));
+        }
+    }
+
+    private void queue(Improvement improvement) {
+        pending.merge(improvement.key(), improvement, (a, b) -> a.best() >= b.best() ? a : b);
+    }
+
+    private double score(Submission submission, int passed, int failed) {
+        Question question = submission.getQuestion();
+        int total = passed + failed;
+        if (total == 0 || question.getPoints() <= 0) {
+            return 0;
+        }
+        double credit = question.getPoints() * (double) passed / total;
+
+        LocalDateTime start = roundStart(question.getRound());
+        if (penaltyPerMinute <= 0 || start == null || submission.getSubmissionTime() == null) {
+            return credit;
+        }
+        long minutes = Math.max(0, Duration.between(start, submission.getSubmissionTime().toLocalDateTime()).toMinutes());
+        return Math.max(credit * minFraction, credit - penaltyPerMinute * minutes);
+    }
+
+    private LocalDateTime roundStart(int round) {
+        return roundStarts.computeIfAbsent(round, r -> contestService.getActiveContestByRound(r).map(Contest::getStartTime))
+                .orElse(null);
+    }
+
+    @Scheduled(fixedDelayString = "${scoring.contest-refresh-ms:60000}")
+    public void refreshRoundStarts() {
+        roundStarts.clear();
+    }
+
+    private double loadBest(String userId, String questionId) {
+        try {
+            Double best = jdbcTemplate.queryForObject(
+                    "SELECT best_score FROM user_question_scores WHERE user_id = ? AND question_id = ?",
+                    Double.class, userId, questionId);
+            return best == null ? 0 : best;
+        } catch (EmptyResultDataAccessException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Writes pending improvements in one transaction. The stored bests are locked, in key
+     * order so concurrent flushes on other nodes cannot deadlock, and each user's score grows
+     * by what the new bests add over them. The totals committed are then set on the
+     * leaderboard. Failed batches are put back for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${scoring.flush-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Improvement> batch = new ArrayList<>(pending.size());
+        for (String key : List.copyOf(pending.keySet())) {
+            Improvement improvement = pending.remove(key);
+            if (improvement != null) {
+                batch.add(improvement);
+            }
+        }
+        batch.sort(Comparator.comparing(Improvement::userId).thenComparing(Improvement::questionId));
+
+        Flushed flushed;
+        try {
+            flushed = transactionTemplate.execute(status -> write(batch));
+        } catch (Exception e) {
+            log.error("Could not persist {} score changes, retrying: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(this::queue);
+            return;
+        }
+
+        // Picks up bests set by other nodes, so later verdicts that do not beat them are skipped here
+        flushed.bests().forEach((key, best) -> bests.merge(key, best, Math::max));
+        leaderboardService.raiseScores(flushed.scores());
+    }
+
+    private Flushed write(List<Improvement> batch) {
+        // Makes sure every row exists and is locked before its best is read
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_question_scores (user_id, question_id, best_score) VALUES (?, ?, 0) "
+                        + "ON DUPLICATE KEY UPDATE best_score = best_score",
+                batch,
+                batch.size(),
+                (ps, improvement) -> {
+                    ps.setString(1, improvement.userId());
+                    ps.setString(2, improvement.questionId());
+                });
+
+        Map<String, Double> stored = new HashMap<>();
+        Object[] keys = batch.stream().flatMap(i -> Stream.of(i.userId(), i.questionId())).toArray();
+        jdbcTemplate.query(
+                "SELECT user_id, question_id, best_score FROM user_question_scores WHERE (user_id, question_id) IN ("
+                        + String.join(",", Collections.nCopies(batch.size(), "(?, ?)")) + ") FOR UPDATE",
+                rs -> {
+                    stored.put(rs.getString(1) + ":" + rs.getString(2), rs.getDouble(3));
+                },
+                keys);
+
+        List<Improvement> raised = new ArrayList<>();
+        Map<String, Double> deltas = new TreeMap<>();
+        Map<String, Double> newBests = new HashMap<>();
+        for (Improvement improvement : batch) {
+            double previous = stored.getOrDefault(improvement.key(), 0.0);
+            newBests.put(improvement.key(), Math.max(previous, improvement.best()));
+            if (improvement.best() > previous) {
+                raised.add(improvement);
+                deltas.merge(improvement.userId(), improvement.best() - previous, Double::sum);
+            }
+        }
+        if (raised.isEmpty()) {
+            return new Flushed(newBests, Map.of());
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE user_question_scores SET best_score = ? WHERE user_id = ? AND question_id = ?",
+                raised,
+                raised.size(),
+                (ps, improvement) -> {
+                    ps.setDouble(1, improvement.best());
+                    ps.setString(2, improvement.userId());
+                    ps.setString(3, improvement.questionId());
+                });
+        List<Map.Entry<String, Double>> userDeltas = List.copyOf(deltas.entrySet());
+        jdbcTemplate.batchUpdate(
+                "UPDATE users SET score = score + ? WHERE id = ?",
+                userDeltas,
+                userDeltas.size(),
+                (ps, entry) -> {
+                    ps.setDouble(1, entry.getValue());
+                    ps.setString(2, entry.getKey());
+                });
+
+        // The rows stay locked until commit, so these are exactly the totals being committed
+        Map<String, Double> scores = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, score FROM users WHERE id IN (" + String.join(",", Collections.nCopies(deltas.size(), "?")) + ")",
+                rs -> {
+                    scores.put(rs.getString(1), rs.getDouble(2));
+                },
+                deltas.keySet().toArray());
+        return new Flushed(newBests, scores);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,11 @@
+package com.uni.cookoff.services;
+
+/**
+ * Verdict counts for an in-flight submission.
+ */
+public record SubmissionProgress(int passed, int failed, int expected) {
+
+    public boolean isComplete() {
+        return passed + failed >= expected;
+    }
+}
@@ -0,0 +1,19 @@
+package com.uni.cookoff.services;
+
+/**
+ * Running passed/failed counters per in-flight submission, so a verdict can be applied
+ * without re-reading every result recorded so far.
+ * Selected with {@code submission.progress.store}: {@code memory} (default) or {@code redis}.
+ */
+public interface SubmissionProgressTracker {
+
+    void register(String submissionId, int expected);
+
+    /**
+     * Adds to the counters and returns the new totals, or {@code null} if the submission
+     * was never registered here (for example after a restart with the in-memory store).
+     */
+    SubmissionProgress record(String submissionId, int passed, int failed);
+
+    void remove(String submissionId);
+}
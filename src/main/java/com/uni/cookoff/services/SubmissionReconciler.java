@@ -0,0 +1,141 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.dto.response.JudgeCallback;
+import com.uni.cookoff.dto.response.JudgeResponse;
+import com.uni.cookoff.models.SubmissionToken;
+import com.uni.cookoff.repositories.SubmissionRepository;
+import com.uni.cookoff.services.judge.JudgeClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects verdicts for submissions whose callbacks never arrived.
+ * Submissions left PENDING past a threshold have their stored tokens looked up in batches,
+ * and every terminal verdict is fed through the same path as a real callback.
+ * With judge0.callbacks.enabled=false this is how all verdicts are collected.
+ * Pending submissions with nothing outstanding are handed back to {@link CodeExecutionService#resumeStalled}.
+ * Each run takes the submissions it looked at least recently, and a submission still pending
+ * after {@code max-attempts} runs is marked FAILED, so stuck ones never crowd out the rest.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionReconciler {
+
+    private static final String RECONCILE_FIELDS = "token,status,time,memory,stdout";
+
+    private final SubmissionService submissionService;
+    private final SubmissionTokenService submissionTokenService;
+    private final SubmissionResultService submissionResultService;
+    private final JudgeClient judgeClient;
+    private final CallbackIngestQueue callbackIngestQueue;
+    private final CodeExecutionService codeExecutionService;
+
+    @Value("${judge0.reconcile.pending-after-ms:120000}")
+    private long pendingAfterMs;
+
+    @Value("${judge0.reconcile.max-submissions:200}")
+    private int maxSubmissions;
+
+    @Value("${judge0.reconcile.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${judge0.reconcile.tokens-per-request:20}")
+    private int tokensPerRequest;
+
+    @Scheduled(fixedDelayString = "${judge0.reconcile.interval-ms:30000}")
+    public void reconcile() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - pendingAfterMs);
+        List<SubmissionRepository.ReconcileCandidate> candidates = submissionService.findReconcileCandidates(cutoff, maxSubmissions);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        submissionService.markReconciled(candidates.stream().map(SubmissionRepository.ReconcileCandidate::getId).toList());
+
+        List<String> submissionIds = new ArrayList<>(candidates.size());
+        for (SubmissionRepository.ReconcileCandidate candidate : candidates) {
+            if (candidate.getReconcileAttempts() < maxAttempts) {
+                submissionIds.add(candidate.getId());
+                continue;
+            }
+            log.warn("Giving up on submission {} after {} reconcile passes", candidate.getId(), candidate.getReconcileAttempts());
+            try {
+                codeExecutionService.failSubmission(candidate.getId());
+            } catch (Exception e) {
+                log.warn("Failing submission {} failed: {}", candidate.getId(), e.getMessage());
+            }
+        }
+        if (submissionIds.isEmpty()) {
+            return;
+        }
+
+        Set<String> recorded = submissionResultService.findRecordedKeys(submissionIds);
+        List<SubmissionToken> outstanding = new ArrayList<>();
+        Set<String> waiting = new HashSet<>();
+        for (SubmissionToken token : submissionTokenService.findBySubmissionIds(submissionIds)) {
+            if (!recorded.contains(token.getSubmission().getId() + ":" + token.getTestcase().getId())) {
+                outstanding.add(token);
+                waiting.add(token.getSubmission().getId());
+            }
+        }
+
+        for (String submissionId : submissionIds) {
+            if (!waiting.contains(submissionId)) {
+                try {
+                    codeExecutionService.resumeStalled(submissionId);
+                } catch (Exception e) {
+                    log.warn("Resuming submission {} failed: {}", submissionId, e.getMessage());
+                }
+            }
+        }
+
+        int recovered = 0;
+        for (int from = 0; from < outstanding.size(); from += tokensPerRequest) {
+            List<SubmissionToken> chunk = outstanding.subList(from, Math.min(from + tokensPerRequest, outstanding.size()));
+            try {
+                recovered += reconcileChunk(chunk);
+            } catch (Exception e) {
+                log.warn("Reconciling {} tokens failed: {}", chunk.size(), e.getMessage());
+            }
+        }
+
+        if (recovered > 0) {
+            log.info("Recovered {} verdicts for {} pending submissions", recovered, submissionIds.size());
+        }
+    }
+
+    private int reconcileChunk(List<SubmissionToken> chunk) {
+        List<JudgeResponse> responses = judgeClient.fetchBatch(
+                chunk.stream().map(SubmissionToken::getToken).toList(), RECONCILE_FIELDS);
+
+        int recovered = 0;
+        for (int i = 0; i < chunk.size() && i < responses.size(); i++) {
+            JudgeResponse response = responses.get(i);
+            if (!CodeExecutionService.isTerminal(response)) {
+                continue;
+            }
+            SubmissionToken token = chunk.get(i);
+            callbackIngestQueue.enqueue(JudgeCallback.builder()
+                    .submissionId(token.getSubmission().getId())
+                    .testCaseId(token.getTestcase().getId())
+                    .token(token.getToken())
+                    .time(response.getTime())
+                    .memory(response.getMemory())
+                    .status(response.getStatus())
+                    .stdout(response.getStdOut())
+                    .plainStdout(true)
+                    .build());
+            recovered++;
+        }
+        return recovered;
+    }
+}
@@ -3,15 +3,22 @@ package com.uni.cookoff.services;
 import com.uni.cookoff.models.SubmissionResult;
 import com.uni.cookoff.repositories.SubmissionResultRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 
 @Service
 public class SubmissionResultService {
     @Autowired
     private SubmissionResultRepository submissionResultRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     public List<SubmissionResult> findAll() {
         return submissionResultRepository.findAll();
@@ -25,6 +32,25 @@ public class SubmissionResultService {
         return submissionResultRepository.findBySubmissionId(submissionId);
     }
 
+    public long countBySubmissionId(String submissionId) {
+        return submissionResultRepository.countBySubmissionId(submissionId);
+    }
+
+    public long countBySubmissionIdAndStatus(String submissionId, String status) {
+        return submissionResultRepository.countBySubmissionIdAndStatus(submissionId, status);
+    }
+
+    /**
+     * Returns "submissionId:testcaseId" for every result already stored for these submissions.
+     */
+    public Set<String> findRecordedKeys(Collection<String> submissionIds) {
+        return new HashSet<>(submissionResultRepository.findRecordedKeys(submissionIds));
+    }
+
+    public List<SubmissionResultRepository.TestcaseStats> findTestcaseStats(String questionId) {
+        return submissionResultRepository.findTestcaseStats(questionId);
+    }
+
     public List<SubmissionResult> findByStatus(String status) {
         return submissionResultRepository.findByStatus(status);
     }
@@ -33,6 +59,41 @@ public class SubmissionResultService {
         return submissionResultRepository.save(submissionResult);
     }
 
+    /**
+     * Inserts results with a single JDBC batch. Results always carry fresh ids, so going
+     * through JPA would only add a merge SELECT per row. A result for a (submission, test case)
+     * pair that is already stored is skipped; any other error fails the batch, unlike INSERT
+     * IGNORE, which would turn bad values into warnings and lose the verdict.
+     * Returns the results that were actually inserted, looked up by id: a skipped row leaves no
+     * row with its fresh id behind. Update counts cannot tell, since the driver reports found
+     * rows (a duplicate counts 1, like an insert) and rewritten batches report no counts at all.
+     */
+    public List<SubmissionResult> saveAllInBatch(List<SubmissionResult> results) {
+        if (results.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO submission_results (id, submission_id, testcase_id, runtime, memory, description, status) VALUES (?, ?, ?, ?, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE id = id",
+                results,
+                results.size(),
+                (ps, result) -> {
+                    ps.setString(1, result.getId());
+                    ps.setString(2, result.getSubmission().getId());
+                    ps.setString(3, result.getTestcase().getId());
+                    ps.setDouble(4, result.getRuntime());
+                    ps.setDouble(5, result.getMemory());
+                    ps.setString(6, result.getDescription());
+                    ps.setString(7, result.getStatus());
+                });
+
+        Set<String> stored = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM submission_results WHERE id IN (" + String.join(",", Collections.nCopies(results.size(), "?")) + ")",
+                String.class,
+                results.stream().map(SubmissionResult::getId).toArray()));
+        return results.stream().filter(result -> stored.contains(result.getId())).toList();
+    }
+
     public void deleteSubmissionResultById(String id) {
         submissionResultRepository.deleteById(id);
     }
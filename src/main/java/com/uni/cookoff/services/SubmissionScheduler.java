@@ -0,0 +1,222 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.Exception.SubmissionQueueFullException;
+import com.uni.cookoff.models.Contest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue in front of Judge0 submission with round-robin fairness between users.
+ * A slot is reserved before the submission row is written, so an overloaded node rejects
+ * with a retry hint instead of piling up work. Capacity and per-user limits come from the
+ * active contest for the submission's round, falling back to the configured defaults.
+ */
+@Component
+@Slf4j
+public class SubmissionScheduler {
+
+    public record Reservation(String userId, int round) {
+    }
+
+    private record Limits(int capacity, int perUser) {
+    }
+
+    private record Task(Runnable runnable, int round, long enqueuedAt) {
+    }
+
+    private final ContestService contestService;
+    private final int workerCount;
+    private final Limits defaultLimits;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<String, ArrayDeque<Task>> tasksByUser = new HashMap<>();
+    private final ArrayDeque<String> readyUsers = new ArrayDeque<>();
+    private final Map<String, Integer> slotsByUser = new HashMap<>();
+    private final Map<Integer, Integer> slotsByRound = new HashMap<>();
+    private int slots;
+
+    private volatile Map<Integer, Limits> roundLimits = Map.of();
+    private volatile double avgServiceMillis = 1000;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public SubmissionScheduler(ContestService contestService,
+                               MeterRegistry meterRegistry,
+                               @Value("${submission.queue.workers:10}") int workerCount,
+                               @Value("${submission.queue.capacity:1000}") int capacity,
+                               @Value("${submission.queue.per-user:5}") int perUser) {
+        this.contestService = contestService;
+        this.workerCount = workerCount;
+        this.defaultLimits = new Limits(capacity, perUser);
+
+        Gauge.builder("cookoff.submissions.queue.depth", this, SubmissionScheduler::depth)
+                .description("Submissions waiting to be sent to the judge")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("cookoff.submissions.queue.wait")
+                .description("Time a submission spends queued before it is sent to the judge")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("cookoff.submissions.queue.rejected")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        refreshRoundLimits();
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "submission-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Claims a queue slot for the user or throws {@link SubmissionQueueFullException}.
+     * Every reservation must be followed by {@link #submit} or {@link #release}.
+     */
+    public Reservation reserve(String userId, int round) {
+        Limits limits = roundLimits.getOrDefault(round, defaultLimits);
+        lock.lock();
+        try {
+            if (slotsByUser.getOrDefault(userId, 0) >= limits.perUser()) {
+                rejectedCounter.increment();
+                throw new SubmissionQueueFullException("Too many pending submissions", retryAfterSeconds());
+            }
+            if (slotsByRound.getOrDefault(round, 0) >= limits.capacity() || slots >= defaultLimits.capacity()) {
+                rejectedCounter.increment();
+                throw new SubmissionQueueFullException("Submission queue is full", retryAfterSeconds());
+            }
+            slotsByUser.merge(userId, 1, Integer::sum);
+            slotsByRound.merge(round, 1, Integer::sum);
+            slots++;
+            return new Reservation(userId, round);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void submit(Reservation reservation, Runnable runnable) {
+        lock.lock();
+        try {
+            ArrayDeque<Task> userTasks = tasksByUser.computeIfAbsent(reservation.userId(), id -> new ArrayDeque<>());
+            if (userTasks.isEmpty()) {
+                readyUsers.addLast(reservation.userId());
+            }
+            // The reserved slot is given back when a worker picks the task up
+            userTasks.addLast(new Task(runnable, reservation.round(), System.nanoTime()));
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Reservation reservation) {
+        lock.lock();
+        try {
+            freeSlot(reservation.userId(), reservation.round());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int depth() {
+        lock.lock();
+        try {
+            return slots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${submission.queue.limits-refresh-ms:30000}")
+    public void refreshRoundLimits() {
+        try {
+            Map<Integer, Limits> limits = new HashMap<>();
+            for (Contest contest : contestService.getEnabledContests()) {
+                limits.put(contest.getRoundNumber(), new Limits(
+                        contest.getSubmissionQueueCapacity() != null ? contest.getSubmissionQueueCapacity() : defaultLimits.capacity(),
+                        contest.getSubmissionQueuePerUser() != null ? contest.getSubmissionQueuePerUser() : defaultLimits.perUser()));
+            }
+            roundLimits = limits;
+        } catch (Exception e) {
+            log.warn("Could not refresh submission queue limits: {}", e.getMessage());
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            Task task;
+            lock.lock();
+            try {
+                while (readyUsers.isEmpty()) {
+                    notEmpty.await();
+                }
+                String userId = readyUsers.pollFirst();
+                ArrayDeque<Task> userTasks = tasksByUser.get(userId);
+                task = userTasks.pollFirst();
+                if (userTasks.isEmpty()) {
+                    tasksByUser.remove(userId);
+                } else {
+                    // Back of the line, so every waiting user gets a turn before this one's next task
+                    readyUsers.addLast(userId);
+                }
+                freeSlot(userId, task.round());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            waitTimer.record(System.nanoTime() - task.enqueuedAt(), TimeUnit.NANOSECONDS);
+            long started = System.nanoTime();
+            try {
+                task.runnable().run();
+            } catch (Exception e) {
+                log.error("Submission task failed: {}", e.getMessage(), e);
+            }
+            double elapsedMillis = (System.nanoTime() - started) / 1_000_000.0;
+            avgServiceMillis = avgServiceMillis * 0.9 + elapsedMillis * 0.1;
+        }
+    }
+
+    private void freeSlot(String userId, int round) {
+        slotsByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+        slotsByRound.computeIfPresent(round, (r, count) -> count > 1 ? count - 1 : null);
+        slots--;
+    }
+
+    // Rough time until the current backlog drains through the worker pool
+    private long retryAfterSeconds() {
+        double drainMillis = slots * avgServiceMillis / Math.max(workerCount, 1);
+        return Math.max(1, (long) Math.ceil(drainMillis / 1000));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+}
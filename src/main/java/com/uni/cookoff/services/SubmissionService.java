@@ -3,8 +3,10 @@ package com.uni.cookoff.services;
 import com.uni.cookoff.models.Submission;
 import com.uni.cookoff.repositories.SubmissionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,6 +47,27 @@ public class SubmissionService {
         return submissionRepository.existsById(id);
     }
 
+    public List<SubmissionRepository.ReconcileCandidate> findReconcileCandidates(Timestamp cutoff, int limit) {
+        return submissionRepository.findReconcileCandidates("PENDING", cutoff, PageRequest.of(0, limit));
+    }
+
+    public void markReconciled(List<String> ids) {
+        submissionRepository.markReconciled(ids, new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Takes or renews the lease on a fail-fast wave plan. Fails while another owner's lease is
+     * younger than {@code leaseMs}.
+     */
+    public boolean claimFailFast(String id, String owner, long leaseMs) {
+        long now = System.currentTimeMillis();
+        return submissionRepository.claimFailFast(id, owner, new Timestamp(now), new Timestamp(now - leaseMs)) > 0;
+    }
+
+    public void updateProgress(String id, int passed, int failed, String status) {
+        submissionRepository.updateProgress(id, passed, failed, status);
+    }
+
     public List<Submission> findByUserIdAndStatus(String userId, String status) {
         return submissionRepository.findByUserIdAndStatus(userId, status);
     }
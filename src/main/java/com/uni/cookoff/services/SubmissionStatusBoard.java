@@ -0,0 +1,217 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.dto.response.SubmissionStatusResponse;
+import com.uni.cookoff.models.Submission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Latest status of recent submissions, so clients can watch a submission without
+ * loading it from the database. Updated on every progress change, and watchers
+ * (long-polls, event streams) are notified as it happens.
+ * With {@code submission.status.store=redis} entries live in Redis hashes and updates are
+ * broadcast on {@link #CHANNEL}, so a watcher on any node sees verdicts recorded on another.
+ * Submissions not on the board are read from the database.
+ */
+@Component
+@Slf4j
+public class SubmissionStatusBoard {
+
+    public static final String CHANNEL = "submission:status";
+    private static final String KEY_PREFIX = "submission:status:";
+    private static final Duration REDIS_TTL = Duration.ofDays(1);
+    private static final long COMPLETED_RETENTION_MS = Duration.ofMinutes(10).toMillis();
+    private static final long PENDING_RETENTION_MS = Duration.ofDays(1).toMillis();
+
+    private record Entry(SubmissionStatusResponse status, long updatedAt) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final SubmissionService submissionService;
+    private final TestcaseService testcaseService;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<SubmissionStatusResponse>>> watchers = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${submission.status.store:memory}")
+    private String store;
+
+    public SubmissionStatusBoard(StringRedisTemplate redisTemplate,
+                                 SubmissionService submissionService,
+                                 TestcaseService testcaseService) {
+        this.redisTemplate = redisTemplate;
+        this.submissionService = submissionService;
+        this.testcaseService = testcaseService;
+    }
+
+    public void publish(SubmissionStatusResponse status) {
+        store(status);
+        if ("redis".equals(store)) {
+            try {
+                redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + status.getSubmissionId());
+            } catch (Exception e) {
+                log.warn("Could not broadcast status of submission {}: {}", status.getSubmissionId(), e.getMessage());
+            }
+        }
+        notifyWatchers(status);
+    }
+
+    private void store(SubmissionStatusResponse status) {
+        if ("redis".equals(store)) {
+            try {
+                String key = KEY_PREFIX + status.getSubmissionId();
+                redisTemplate.opsForHash().putAll(key, Map.of(
+                        "status", status.getStatus(),
+                        "passed", String.valueOf(status.getTestCasesPassed()),
+                        "failed", String.valueOf(status.getTestCasesFailed()),
+                        "total", String.valueOf(status.getTotalTestCases()),
+                        "userId", status.getUserId() == null ? "" : status.getUserId()));
+                redisTemplate.expire(key, REDIS_TTL);
+            } catch (Exception e) {
+                log.warn("Could not store status of submission {}: {}", status.getSubmissionId(), e.getMessage());
+            }
+        } else {
+            entries.put(status.getSubmissionId(), new Entry(status, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Updates the counters and status of a submission already on the board; the
+     * user and total are kept from the earlier entry. Submissions not on the board are left alone.
+     */
+    public void update(String submissionId, int passed, int failed, String status) {
+        SubmissionStatusResponse current = fromBoard(submissionId);
+        if (current == null) {
+            return;
+        }
+        publish(SubmissionStatusResponse.builder()
+                .submissionId(submissionId)
+                .userId(current.getUserId())
+                .totalTestCases(current.getTotalTestCases())
+                .testCasesPassed(passed)
+                .testCasesFailed(failed)
+                .status(status)
+                .build());
+    }
+
+    /**
+     * A submission read from the database is put back on the board, so later updates reach its watchers.
+     */
+    public SubmissionStatusResponse get(String submissionId) {
+        SubmissionStatusResponse status = fromBoard(submissionId);
+        if (status != null) {
+            return status;
+        }
+        status = fromDatabase(submissionId);
+        if (status != null) {
+            store(status);
+        }
+        return status;
+    }
+
+    /**
+     * Registers a callback for every later update of the submission. Returns the handle that
+     * removes it again.
+     */
+    public Runnable watch(String submissionId, Consumer<SubmissionStatusResponse> watcher) {
+        watchers.computeIfAbsent(submissionId, id -> new CopyOnWriteArrayList<>()).add(watcher);
+        return () -> watchers.computeIfPresent(submissionId, (id, list) -> {
+            list.remove(watcher);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Called for messages on {@link #CHANNEL}; updates published by this node were already delivered.
+     */
+    public void onStatusMessage(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String submissionId = message.substring(separator + 1);
+        if (watchers.containsKey(submissionId)) {
+            SubmissionStatusResponse status = fromBoard(submissionId);
+            if (status != null) {
+                notifyWatchers(status);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purge() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now - entry.updatedAt() >
+                (isFinal(entry.status().getStatus()) ? COMPLETED_RETENTION_MS : PENDING_RETENTION_MS));
+    }
+
+    // COMPLETED and FAILED submissions never change again
+    public static boolean isFinal(String status) {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
+    private void notifyWatchers(SubmissionStatusResponse status) {
+        List<Consumer<SubmissionStatusResponse>> list = watchers.get(status.getSubmissionId());
+        if (list == null) {
+            return;
+        }
+        for (Consumer<SubmissionStatusResponse> watcher : list) {
+            try {
+                watcher.accept(status);
+            } catch (Exception e) {
+                log.debug("Status watcher failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private SubmissionStatusResponse fromBoard(String submissionId) {
+        if (!"redis".equals(store)) {
+            Entry entry = entries.get(submissionId);
+            return entry == null ? null : entry.status();
+        }
+        try {
+            Map<Object, Object> hash = redisTemplate.opsForHash().entries(KEY_PREFIX + submissionId);
+            if (hash.isEmpty()) {
+                return null;
+            }
+            String userId = (String) hash.get("userId");
+            return SubmissionStatusResponse.builder()
+                    .submissionId(submissionId)
+                    .status((String) hash.get("status"))
+                    .testCasesPassed(Integer.parseInt((String) hash.get("passed")))
+                    .testCasesFailed(Integer.parseInt((String) hash.get("failed")))
+                    .totalTestCases(Integer.parseInt((String) hash.get("total")))
+                    .userId(userId == null || userId.isEmpty() ? null : userId)
+                    .build();
+        } catch (Exception e) {
+            log.warn("Could not read status of submission {}: {}", submissionId, e.getMessage());
+            return null;
+        }
+    }
+
+    private SubmissionStatusResponse fromDatabase(String submissionId) {
+        Submission submission = submissionService.findById(submissionId).orElse(null);
+        if (submission == null) {
+            return null;
+        }
+        return SubmissionStatusResponse.builder()
+                .submissionId(submissionId)
+                .status(submission.getStatus())
+                .testCasesPassed(submission.getTestcasesPassed())
+                .testCasesFailed(submission.getTestcasesFailed())
+                .totalTestCases((int) testcaseService.countByQuestionId(submission.getQuestion().getId()))
+                .userId(submission.getUser() != null ? submission.getUser().getId() : null)
+                .build();
+    }
+}
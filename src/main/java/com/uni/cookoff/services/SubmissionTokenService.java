@@ -4,6 +4,10 @@ import com.uni.cookoff.models.SubmissionToken;
 import com.uni.cookoff.repositories.SubmissionTokenRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Service
 public class SubmissionTokenService {
@@ -13,9 +17,15 @@ public class SubmissionTokenService {
     public SubmissionToken findToken(String submissionId, String testcaseId) {
         return submissionTokenRepository.findBySubmissionIdAndTestcaseId(submissionId, testcaseId);
     }
+    public List<SubmissionToken> findBySubmissionIds(Collection<String> submissionIds) {
+        return submissionTokenRepository.findBySubmissionIdIn(submissionIds);
+    }
+
+    @Transactional
     public void deleteBySubmissionId(String submissionId) {
         submissionTokenRepository.deleteBySubmissionId(submissionId);
     }
+    @Transactional
     public void deleteByTestcaseId(String testcaseId) {
         submissionTokenRepository.deleteByTestcaseId(testcaseId);
     }
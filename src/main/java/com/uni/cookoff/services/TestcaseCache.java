@@ -0,0 +1,98 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.models.Testcase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of each question's test cases.
+ * Entries are tagged with the test case set version they were loaded under and are reloaded
+ * as soon as the version moves. On a single node that happens on every admin edit. With
+ * {@code testcases.cache.redis-invalidation} enabled, edits are also broadcast so other
+ * nodes drop their copy.
+ */
+@Component
+@Slf4j
+public class TestcaseCache {
+
+    public static final String INVALIDATION_CHANNEL = "testcases:invalidate";
+
+    private record Entry(long version, List<Testcase> testcases) {
+    }
+
+    private final TestcaseVersionService testcaseVersionService;
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, Entry> entries;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${testcases.cache.redis-invalidation:false}")
+    private boolean redisInvalidation;
+
+    public TestcaseCache(TestcaseVersionService testcaseVersionService,
+                         StringRedisTemplate redisTemplate,
+                         @Value("${testcases.cache.max-questions:256}") int maxQuestions) {
+        this.testcaseVersionService = testcaseVersionService;
+        this.redisTemplate = redisTemplate;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxQuestions;
+            }
+        };
+    }
+
+    public List<Testcase> get(String questionId, Supplier<List<Testcase>> loader) {
+        // Read the version before loading so a concurrent edit can never be cached under the new version
+        long version = testcaseVersionService.currentVersion(questionId);
+        synchronized (entries) {
+            Entry entry = entries.get(questionId);
+            if (entry != null && entry.version() == version) {
+                return entry.testcases();
+            }
+        }
+
+        List<Testcase> testcases = List.copyOf(loader.get());
+        synchronized (entries) {
+            entries.put(questionId, new Entry(version, testcases));
+        }
+        return testcases;
+    }
+
+    /**
+     * Drops the local copy and tells the other nodes to do the same.
+     */
+    public void invalidate(String questionId) {
+        evict(questionId);
+        if (redisInvalidation) {
+            try {
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":" + questionId);
+            } catch (Exception e) {
+                log.warn("Could not broadcast test case invalidation for {}: {}", questionId, e.getMessage());
+            }
+        }
+    }
+
+    public void onInvalidationMessage(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String questionId = message.substring(separator + 1);
+        testcaseVersionService.bumpLocal(questionId);
+        evict(questionId);
+    }
+
+    private void evict(String questionId) {
+        synchronized (entries) {
+            entries.remove(questionId);
+        }
+    }
+}
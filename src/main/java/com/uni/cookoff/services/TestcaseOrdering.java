@@ -0,0 +1,77 @@
+package com.uni.cookoff.services;
+
+import com.uni.cookoff.models.Testcase;
+import com.uni.cookoff.repositories.SubmissionResultRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders a question's test cases for fail-fast judging: the ones that have failed most
+ * often go first, ties go to the fastest. Statistics come from stored submission results
+ * and are refreshed per question at most once per refresh interval.
+ */
+@Component
+@Slf4j
+public class TestcaseOrdering {
+
+    private record Stats(double failureRate, double avgRuntime) {
+    }
+
+    private record Snapshot(Map<String, Stats> stats, long loadedAt) {
+    }
+
+    private final SubmissionResultService submissionResultService;
+    private final long refreshMs;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public TestcaseOrdering(SubmissionResultService submissionResultService,
+                            @Value("${testcases.ordering.refresh-ms:300000}") long refreshMs) {
+        this.submissionResultService = submissionResultService;
+        this.refreshMs = refreshMs;
+    }
+
+    public List<Testcase> order(String questionId, List<Testcase> testCases) {
+        Map<String, Stats> stats = statsFor(questionId);
+
+        // Test cases without history fall back to no failures and their configured time limit
+        Comparator<Testcase> byFailureRate = Comparator.comparingDouble(
+                (Testcase t) -> stats.containsKey(t.getId()) ? stats.get(t.getId()).failureRate() : 0.0).reversed();
+        Comparator<Testcase> byRuntime = Comparator.comparingDouble(
+                t -> stats.containsKey(t.getId()) ? stats.get(t.getId()).avgRuntime() : t.getRuntime());
+
+        List<Testcase> ordered = new ArrayList<>(testCases);
+        ordered.sort(byFailureRate.thenComparing(byRuntime));
+        return ordered;
+    }
+
+    private Map<String, Stats> statsFor(String questionId) {
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(questionId);
+        if (snapshot != null && now - snapshot.loadedAt() < refreshMs) {
+            return snapshot.stats();
+        }
+
+        Map<String, Stats> stats = new HashMap<>();
+        try {
+            for (SubmissionResultRepository.TestcaseStats row : submissionResultService.findTestcaseStats(questionId)) {
+                stats.put(row.getTestcaseId(), new Stats(
+                        row.getFailureRate() != null ? row.getFailureRate() : 0.0,
+                        row.getAvgRuntime() != null ? row.getAvgRuntime() : 0.0));
+            }
+        } catch (Exception e) {
+            log.warn("Could not load test case statistics for question {}: {}", questionId, e.getMessage());
+            return snapshot != null ? snapshot.stats() : Map.of();
+        }
+
+        snapshots.put(questionId, new Snapshot(stats, now));
+        return stats;
+    }
+}
@@ -3,8 +3,10 @@ package com.uni.cookoff.services;
 import com.uni.cookoff.models.Testcase;
 import com.uni.cookoff.repositories.TestcaseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +14,15 @@ import java.util.Optional;
 public class TestcaseService {
     @Autowired
     private TestcaseRepository testcaseRepository;
+    @Autowired
+    private TestcaseVersionService testcaseVersionService;
+    @Autowired
+    private TestcaseCache testcaseCache;
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${blobs.inline-threshold-bytes:32768}")
+    private int inlineThresholdBytes;
 
     public List<Testcase> findAll() {
         return testcaseRepository.findAll();
@@ -21,16 +32,58 @@ public class TestcaseService {
         return testcaseRepository.findById(id);
     }
 
+    /**
+     * Served from {@link TestcaseCache}; the returned list is shared and must not be modified.
+     */
     public List<Testcase> findByQuestionId(String questionId) {
-        return testcaseRepository.findByQuestionId(questionId);
+        return testcaseCache.get(questionId, () -> testcaseRepository.findByQuestionId(questionId));
+    }
+
+    public long countByQuestionId(String questionId) {
+        return testcaseRepository.countByQuestionId(questionId);
     }
 
     public Testcase saveTestcase(Testcase testcase) {
-        return testcaseRepository.save(testcase);
+        offloadPayloads(testcase);
+        Testcase saved = testcaseRepository.save(testcase);
+        changed(saved.getQuestion().getId());
+        return saved;
     }
 
     public void deleteTestcaseById(String id) {
+        Optional<Testcase> testcase = testcaseRepository.findById(id);
         testcaseRepository.deleteById(id);
+        testcase.ifPresent(t -> changed(t.getQuestion().getId()));
+    }
+
+    // Every write path must end here so cached lists and cached verdicts are invalidated
+    private void changed(String questionId) {
+        testcaseVersionService.bump(questionId);
+        testcaseCache.invalidate(questionId);
+    }
+
+    // Hash and size are always recorded; payloads above the threshold move to the blob store
+    private void offloadPayloads(Testcase testcase) {
+        if (testcase.getInput() != null) {
+            byte[] input = testcase.getInput().getBytes(StandardCharsets.UTF_8);
+            testcase.setInputSize((long) input.length);
+            if (input.length > inlineThresholdBytes) {
+                testcase.setInputHash(blobStore.put(input));
+                testcase.setInput(null);
+            } else {
+                testcase.setInputHash(BlobStore.sha256(input));
+            }
+        }
+        if (testcase.getExpectedOutput() != null) {
+            byte[] output = testcase.getExpectedOutput().getBytes(StandardCharsets.UTF_8);
+            testcase.setExpectedOutputSize((long) output.length);
+            if (output.length > inlineThresholdBytes) {
+                testcase.setExpectedOutputHash(blobStore.put(output));
+                testcase.setExpectedOutput(null);
+            } else {
+                testcase.setExpectedOutputHash(BlobStore.sha256(output));
+            }
+        }
     }
 
     public boolean existsById(String id) {
@@ -0,0 +1,56 @@
+package com.uni.cookoff.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamp of each question's test case set, bumped on every test case change.
+ * In memory the stamps start from the process start time, so values from an earlier run
+ * (for example keys left in Redis) can never match. With {@code testcases.version.store=redis}
+ * the stamps are shared by all nodes.
+ */
+@Service
+@RequiredArgsConstructor
+public class TestcaseVersionService {
+
+    private static final String KEY_PREFIX = "testcases:version:";
+    private static final long EPOCH = System.currentTimeMillis();
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Value("${testcases.version.store:memory}")
+    private String store;
+
+    public long currentVersion(String questionId) {
+        if ("redis".equals(store)) {
+            String version = redisTemplate.opsForValue().get(KEY_PREFIX + questionId);
+            return version == null ? 0 : Long.parseLong(version);
+        }
+        return versions.computeIfAbsent(questionId, id -> new AtomicLong(EPOCH)).get();
+    }
+
+    public long bump(String questionId) {
+        if ("redis".equals(store)) {
+            Long version = redisTemplate.opsForValue().increment(KEY_PREFIX + questionId);
+            return version == null ? 0 : version;
+        }
+        return versions.computeIfAbsent(questionId, id -> new AtomicLong(EPOCH)).incrementAndGet();
+    }
+
+    /**
+     * Applies a bump made on another node. Redis-backed stamps are already shared, so only
+     * the in-memory store needs this.
+     */
+    public void bumpLocal(String questionId) {
+        if (!"redis".equals(store)) {
+            versions.computeIfAbsent(questionId, id -> new AtomicLong(EPOCH)).incrementAndGet();
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final LeaderboardService leaderboardService;
 
     public Optional<User> findByUserId(String userId){
         return userRepository.findById(userId);
@@ -50,10 +51,6 @@ public class UserService {
         return userRepository.findQualifiedUsersForRound(round);
     }
 
-    public List<User> findTopUsersByScore() {
-        return userRepository.findTopUsersByScore();
-    }
-
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -63,10 +60,13 @@ public class UserService {
     }
 
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        leaderboardService.upsert(saved);
+        return saved;
     }
 
     public void deleteUserById(String id) {
         userRepository.deleteById(id);
+        leaderboardService.remove(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.uni.cookoff.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uni.cookoff.dto.response.JudgeCallback;
+import com.uni.cookoff.dto.response.JudgeStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content-addressed cache of complete verdict sets.
+ * The key combines a hash of the normalized source, the language and the question's
+ * test case set version, so any test case edit makes older entries unreachable.
+ * Only deterministic outcomes are cached: timeouts, runtime and internal errors always go
+ * back to the judge. The optional Redis layer shares entries between nodes and therefore
+ * needs {@code testcases.version.store=redis}; startup fails otherwise.
+ */
+@Component
+@Slf4j
+public class VerdictCache {
+
+    public record CachedVerdict(String testCaseId, String statusId, String description, String time, Integer memory) {
+    }
+
+    private record Pending(String key, List<CachedVerdict> verdicts, long startedAt) {
+    }
+
+    // Accepted, Wrong Answer, Compilation Error
+    // Skipped test cases follow deterministically from a cached wrong answer or compile error
+    private static final Set<String> CACHEABLE_STATUSES = Set.of("3", "4", "6", CodeExecutionService.SKIPPED_STATUS_ID);
+    private static final String REDIS_PREFIX = "verdict:";
+    private static final long PENDING_RETENTION_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final TestcaseVersionService testcaseVersionService;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, List<CachedVerdict>> entries;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    @Value("${verdict.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${verdict.cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${verdict.cache.redis.ttl-minutes:360}")
+    private long redisTtlMinutes;
+
+    @Value("${testcases.version.store:memory}")
+    private String versionStore;
+
+    public VerdictCache(TestcaseVersionService testcaseVersionService,
+                        StringRedisTemplate redisTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${verdict.cache.max-entries:10000}") int maxEntries) {
+        this.testcaseVersionService = testcaseVersionService;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<CachedVerdict>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Keys embed the test case version, and in-memory versions start from each process's own
+     * start time, so without shared versions no node could ever read another node's entries.
+     */
+    @PostConstruct
+    void checkVersionStore() {
+        if (enabled && redisEnabled && !"redis".equals(versionStore)) {
+            throw new IllegalStateException(
+                    "verdict.cache.redis.enabled requires testcases.version.store=redis, found " + versionStore);
+        }
+    }
+
+    public String keyFor(String sourceCode, int languageId, String questionId) {
+        return sha256(normalize(sourceCode)) + ":" + languageId + ":" + questionId + ":"
+                + testcaseVersionService.currentVersion(questionId);
+    }
+
+    public List<CachedVerdict> lookup(String key) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            List<CachedVerdict> verdicts = entries.get(key);
+            if (verdicts != null) {
+                return verdicts;
+            }
+        }
+        if (!redisEnabled) {
+            return null;
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(REDIS_PREFIX + key);
+            if (json == null) {
+                return null;
+            }
+            List<CachedVerdict> verdicts = List.copyOf(objectMapper.readValue(json, new TypeReference<List<CachedVerdict>>() {
+            }));
+            synchronized (entries) {
+                entries.put(key, verdicts);
+            }
+            return verdicts;
+        } catch (Exception e) {
+            log.warn("Verdict cache lookup in Redis failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Starts collecting verdicts for a submission that missed the cache.
+     */
+    public void expect(String submissionId, String key) {
+        if (!enabled) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - PENDING_RETENTION_MS;
+        pending.values().removeIf(entry -> entry.startedAt() < cutoff);
+        pending.put(submissionId, new Pending(key, new ArrayList<>(), System.currentTimeMillis()));
+    }
+
+    public void record(String submissionId, List<JudgeCallback> callbacks) {
+        Pending entry = pending.get(submissionId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            for (JudgeCallback callback : callbacks) {
+                entry.verdicts().add(new CachedVerdict(callback.getTestCaseId(), callback.getStatus().getId(),
+                        callback.getStatus().getDescription(), callback.getTime(), callback.getMemory()));
+            }
+        }
+    }
+
+    /**
+     * Stores the collected verdicts once the submission is complete, if all of them are cacheable.
+     */
+    public void complete(String submissionId) {
+        Pending entry = pending.remove(submissionId);
+        if (entry == null) {
+            return;
+        }
+        List<CachedVerdict> verdicts;
+        synchronized (entry) {
+            verdicts = List.copyOf(entry.verdicts());
+        }
+        if (verdicts.isEmpty() || !verdicts.stream().allMatch(v -> CACHEABLE_STATUSES.contains(v.statusId()))) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(entry.key(), verdicts);
+        }
+        if (redisEnabled) {
+            try {
+                redisTemplate.opsForValue().set(REDIS_PREFIX + entry.key(), objectMapper.writeValueAsString(verdicts),
+                        Duration.ofMinutes(redisTtlMinutes));
+            } catch (Exception e) {
+                log.warn("Verdict cache write to Redis failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // A submission that never completes has nothing worth caching
+    public void discard(String submissionId) {
+        pending.remove(submissionId);
+    }
+
+    public List<JudgeCallback> toCallbacks(String submissionId, List<CachedVerdict> verdicts) {
+        List<JudgeCallback> callbacks = new ArrayList<>(verdicts.size());
+        for (CachedVerdict verdict : verdicts) {
+            callbacks.add(JudgeCallback.builder()
+                    .submissionId(submissionId)
+                    .testCaseId(verdict.testCaseId())
+                    .time(verdict.time())
+                    .memory(verdict.memory())
+                    .status(JudgeStatus.builder().id(verdict.statusId()).description(verdict.description()).build())
+                    .build());
+        }
+        return callbacks;
+    }
+
+    // Line endings and trailing whitespace at the end of the file never change what a program does
+    private String normalize(String sourceCode) {
+        return sourceCode.replace("\r\n", "\n").stripTrailing();
+    }
+
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
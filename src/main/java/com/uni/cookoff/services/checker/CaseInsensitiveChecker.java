@@ -0,0 +1,55 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Token comparison that ignores ASCII case, for answers like "YES"/"yes".
+ * Selected with the "custom" mode and checker name "case-insensitive".
+ */
+@Component
+public class CaseInsensitiveChecker implements OutputChecker {
+
+    @Override
+    public String name() {
+        return "case-insensitive";
+    }
+
+    @Override
+    public boolean accepts(InputStream actual, InputStream expected, Question question) throws IOException {
+        TokenStream a = new TokenStream(actual);
+        TokenStream e = new TokenStream(expected);
+        while (true) {
+            boolean hasActual = a.next();
+            boolean hasExpected = e.next();
+            if (hasActual != hasExpected) {
+                return false;
+            }
+            if (!hasActual) {
+                return true;
+            }
+            if (!equalsIgnoreCase(a, e)) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean equalsIgnoreCase(TokenStream a, TokenStream e) {
+        if (a.length() != e.length()) {
+            return false;
+        }
+        for (int i = 0; i < a.length(); i++) {
+            if (lower(a.token()[i]) != lower(e.token()[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+}
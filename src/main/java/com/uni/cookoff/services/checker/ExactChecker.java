@@ -0,0 +1,46 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Byte-for-byte comparison that, like Judge0, ignores trailing whitespace at the end of the output.
+ */
+@Component
+public class ExactChecker implements OutputChecker {
+
+    public static final String NAME = "exact";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean accepts(InputStream actual, InputStream expected, Question question) throws IOException {
+        InputStream a = new BufferedInputStream(actual);
+        InputStream e = new BufferedInputStream(expected);
+        int x;
+        int y;
+        do {
+            x = a.read();
+            y = e.read();
+        } while (x == y && x != -1);
+
+        // From the first difference on, both sides may only hold trailing whitespace
+        return onlyWhitespace(x, a) && onlyWhitespace(y, e);
+    }
+
+    private static boolean onlyWhitespace(int first, InputStream in) throws IOException {
+        for (int b = first; b != -1; b = in.read()) {
+            if (!TokenStream.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
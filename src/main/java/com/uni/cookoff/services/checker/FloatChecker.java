@@ -0,0 +1,74 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Token comparison where numeric tokens match within the question's epsilon, absolute or
+ * relative to the expected value. Non-numeric tokens must match exactly.
+ */
+@Component
+public class FloatChecker implements OutputChecker {
+
+    private final double defaultEpsilon;
+
+    public FloatChecker(@Value("${checker.float.default-epsilon:1e-6}") double defaultEpsilon) {
+        this.defaultEpsilon = defaultEpsilon;
+    }
+
+    @Override
+    public String name() {
+        return "float";
+    }
+
+    @Override
+    public boolean accepts(InputStream actual, InputStream expected, Question question) throws IOException {
+        double epsilon = question.getCheckerEpsilon() != null ? question.getCheckerEpsilon() : defaultEpsilon;
+        TokenStream a = new TokenStream(actual);
+        TokenStream e = new TokenStream(expected);
+        while (true) {
+            boolean hasActual = a.next();
+            boolean hasExpected = e.next();
+            if (hasActual != hasExpected) {
+                return false;
+            }
+            if (!hasActual) {
+                return true;
+            }
+            if (!a.sameToken(e) && !close(a, e, epsilon)) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean close(TokenStream actual, TokenStream expected, double epsilon) {
+        if (!numeric(actual) || !numeric(expected)) {
+            return false;
+        }
+        try {
+            double a = Double.parseDouble(new String(actual.token(), 0, actual.length(), StandardCharsets.US_ASCII));
+            double e = Double.parseDouble(new String(expected.token(), 0, expected.length(), StandardCharsets.US_ASCII));
+            double diff = Math.abs(a - e);
+            return diff <= epsilon || diff <= epsilon * Math.abs(e);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    // Keeps words like "NaN" or "Infinity" and type suffixes like "1d" out of the numeric comparison
+    private static boolean numeric(TokenStream token) {
+        byte[] bytes = token.token();
+        for (int i = 0; i < token.length(); i++) {
+            byte b = bytes[i];
+            if (!(b >= '0' && b <= '9') && b != '.' && b != '-' && b != '+' && b != 'e' && b != 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
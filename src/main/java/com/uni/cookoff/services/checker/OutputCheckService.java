@@ -0,0 +1,148 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import com.uni.cookoff.models.Testcase;
+import com.uni.cookoff.services.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Judges stdout against a test case's expected output on our side, so Judge0 never
+ * receives expected outputs and questions can use tolerant comparisons.
+ * Exact matches are settled from the stored size and hash when possible; everything
+ * else streams the expected output from its row or blob mapping.
+ */
+@Service
+public class OutputCheckService {
+
+    private static final String CUSTOM = "custom";
+
+    private final Map<String, OutputChecker> checkers = new HashMap<>();
+    private final BlobStore blobStore;
+    private final Counter fastPathHits;
+
+    public OutputCheckService(List<OutputChecker> checkers, BlobStore blobStore, MeterRegistry meterRegistry) {
+        checkers.forEach(checker -> this.checkers.put(checker.name(), checker));
+        this.blobStore = blobStore;
+        this.fastPathHits = Counter.builder("cookoff.checker.fast_path")
+                .description("Exact-mode verdicts decided from the expected output's size or hash")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolves the question's checker; an unknown mode or custom name is rejected when the
+     * question is saved, so it only shows up here for rows edited by hand.
+     */
+    public OutputChecker checkerFor(Question question) {
+        String mode = question == null || question.getChecker() == null ? ExactChecker.NAME : question.getChecker();
+        String name = CUSTOM.equals(mode) ? question.getCheckerName() : mode;
+        OutputChecker checker = name == null ? null : checkers.get(name);
+        if (checker == null) {
+            throw new IllegalArgumentException("Unknown checker: " + name);
+        }
+        return checker;
+    }
+
+    public boolean isKnown(String mode, String checkerName) {
+        if (mode == null) {
+            return true;
+        }
+        return CUSTOM.equals(mode) ? checkerName != null && checkers.containsKey(checkerName) : checkers.containsKey(mode);
+    }
+
+    public boolean accepts(Question question, Testcase testCase, byte[] stdout) {
+        OutputChecker checker = checkerFor(question);
+        if (checker instanceof ExactChecker) {
+            Boolean decided = decideExact(testCase, stdout);
+            if (decided != null) {
+                fastPathHits.increment();
+                return decided;
+            }
+        }
+
+        try (InputStream expected = expectedOutput(testCase)) {
+            return checker.accepts(new ByteArrayInputStream(stdout), expected, question);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not check output of test case " + testCase.getId(), e);
+        }
+    }
+
+    /**
+     * Equal outputs share the stored hash. Outputs equal up to trailing whitespace can never be
+     * longer, once trimmed, than the raw expected output, so longer ones are rejected unread.
+     */
+    private Boolean decideExact(Testcase testCase, byte[] stdout) {
+        Long expectedSize = testCase.getExpectedOutputSize();
+        if (expectedSize != null && trimmedLength(stdout) > expectedSize) {
+            return false;
+        }
+        if (testCase.getExpectedOutputHash() != null && expectedSize != null && stdout.length == expectedSize
+                && testCase.getExpectedOutputHash().equals(BlobStore.sha256(stdout))) {
+            return true;
+        }
+        return null;
+    }
+
+    private InputStream expectedOutput(Testcase testCase) {
+        if (testCase.getExpectedOutput() != null) {
+            return new ByteArrayInputStream(testCase.getExpectedOutput().getBytes(StandardCharsets.UTF_8));
+        }
+        if (testCase.getExpectedOutputHash() != null) {
+            return new ByteBufferInputStream(blobStore.read(testCase.getExpectedOutputHash()));
+        }
+        return InputStream.nullInputStream();
+    }
+
+    /** Judge0 callbacks carry base64 output (MIME style, with line breaks); polled results are plain. */
+    public static byte[] decodeStdout(String stdout, boolean base64) {
+        if (stdout == null) {
+            return new byte[0];
+        }
+        return base64 ? Base64.getMimeDecoder().decode(stdout) : stdout.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int trimmedLength(byte[] bytes) {
+        int length = bytes.length;
+        while (length > 0 && TokenStream.isWhitespace(bytes[length - 1] & 0xFF)) {
+            length--;
+        }
+        return length;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+    }
+}
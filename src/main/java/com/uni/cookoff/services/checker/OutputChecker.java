@@ -0,0 +1,19 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decides whether a program's stdout is an accepted answer for a test case.
+ * Both sides are read as UTF-8 byte streams, so implementations should compare as they go
+ * rather than reading either side into memory. Every bean is registered under {@link #name()};
+ * questions pick one by mode, or by name with the "custom" mode.
+ */
+public interface OutputChecker {
+
+    String name();
+
+    boolean accepts(InputStream actual, InputStream expected, Question question) throws IOException;
+}
@@ -0,0 +1,38 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Compares the sequence of whitespace-separated tokens, so spacing and line breaks do not matter.
+ */
+@Component
+public class TokenChecker implements OutputChecker {
+
+    @Override
+    public String name() {
+        return "token";
+    }
+
+    @Override
+    public boolean accepts(InputStream actual, InputStream expected, Question question) throws IOException {
+        TokenStream a = new TokenStream(actual);
+        TokenStream e = new TokenStream(expected);
+        while (true) {
+            boolean hasActual = a.next();
+            boolean hasExpected = e.next();
+            if (hasActual != hasExpected) {
+                return false;
+            }
+            if (!hasActual) {
+                return true;
+            }
+            if (!a.sameToken(e)) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.uni.cookoff.services.checker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads whitespace-separated tokens from a byte stream into a reused buffer.
+ * Tokens are raw UTF-8 bytes; only ASCII whitespace separates them.
+ */
+final class TokenStream {
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+    private int limit;
+    private byte[] token = new byte[64];
+    private int length;
+
+    TokenStream(InputStream in) {
+        this.in = in;
+    }
+
+    /** Advances to the next token; false once the stream holds nothing but whitespace. */
+    boolean next() throws IOException {
+        int b;
+        do {
+            b = read();
+        } while (b != -1 && isWhitespace(b));
+
+        length = 0;
+        while (b != -1 && !isWhitespace(b)) {
+            if (length == token.length) {
+                token = Arrays.copyOf(token, length * 2);
+            }
+            token[length++] = (byte) b;
+            b = read();
+        }
+        return length > 0;
+    }
+
+    byte[] token() {
+        return token;
+    }
+
+    int length() {
+        return length;
+    }
+
+    boolean sameToken(TokenStream other) {
+        return Arrays.equals(token, 0, length, other.token, 0, other.length);
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+}
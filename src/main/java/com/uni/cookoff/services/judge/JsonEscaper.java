@@ -0,0 +1,79 @@
+package com.uni.cookoff.services.judge;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes UTF-8 bytes as the contents of a JSON string. Only quotes, backslashes and
+ * control characters need escaping, and none of them can appear inside a multi-byte
+ * UTF-8 sequence, so the input is escaped byte by byte without decoding it.
+ * Escapes are spelled the way Jackson writes them: short forms where JSON has one, else upper-case hex.
+ */
+final class JsonEscaper {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHUNK = 8192;
+
+    private JsonEscaper() {
+    }
+
+    static void writeString(String value, OutputStream out) throws IOException {
+        out.write('"');
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeEscaped(bytes, 0, bytes.length, out);
+        out.write('"');
+    }
+
+    static void writeString(ByteBuffer value, OutputStream out) throws IOException {
+        out.write('"');
+        if (value.hasArray()) {
+            writeEscaped(value.array(), value.arrayOffset() + value.position(), value.remaining(), out);
+        } else {
+            byte[] chunk = new byte[Math.min(CHUNK, value.remaining())];
+            while (value.hasRemaining()) {
+                int length = Math.min(chunk.length, value.remaining());
+                value.get(chunk, 0, length);
+                writeEscaped(chunk, 0, length, out);
+            }
+        }
+        out.write('"');
+    }
+
+    private static void writeEscaped(byte[] bytes, int offset, int length, OutputStream out) throws IOException {
+        int end = offset + length;
+        int runStart = offset;
+        for (int i = offset; i < end; i++) {
+            int b = bytes[i];
+            // negative bytes are parts of multi-byte sequences and pass through untouched
+            if (b < 0 || (b >= 0x20 && b != '"' && b != '\\')) {
+                continue;
+            }
+            out.write(bytes, runStart, i - runStart);
+            writeEscape(b, out);
+            runStart = i + 1;
+        }
+        out.write(bytes, runStart, end - runStart);
+    }
+
+    private static void writeEscape(int b, OutputStream out) throws IOException {
+        out.write('\\');
+        switch (b) {
+            case '"' -> out.write('"');
+            case '\\' -> out.write('\\');
+            case '\n' -> out.write('n');
+            case '\r' -> out.write('r');
+            case '\t' -> out.write('t');
+            case '\b' -> out.write('b');
+            case '\f' -> out.write('f');
+            default -> {
+                out.write('u');
+                out.write('0');
+                out.write('0');
+                out.write(HEX[b >> 4]);
+                out.write(HEX[b & 0xF]);
+            }
+        }
+    }
+}
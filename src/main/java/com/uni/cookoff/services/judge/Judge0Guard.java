@@ -0,0 +1,254 @@
+package com.uni.cookoff.services.judge;
+
+import com.uni.cookoff.Exception.JudgeBusyException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Protects request threads from a slow or failing Judge0.
+ * <p>
+ * Concurrency is capped by an AIMD limit: every fast, successful call raises it by about one
+ * per limit's worth of calls, and every failure or call slower than the latency threshold cuts
+ * it multiplicatively. wait=true runs are not timed, since they take as long as the program does. Callers that find no free permit within the acquire timeout get a
+ * {@link JudgeBusyException} instead of queueing behind a stuck socket.
+ * <p>
+ * A circuit breaker opens when the failure rate over the last calls crosses the threshold.
+ * While open every call fails immediately; after the open period a few probe calls are let
+ * through and the circuit closes once they all succeed.
+ */
+public class Judge0Guard {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double decrease, long latencyThresholdMs,
+                    long acquireTimeoutMs, int windowSize, int minCalls, double failureRateThreshold,
+                    long openMs, int halfOpenProbes) {
+    }
+
+    private final Settings settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitFreed = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+
+    private State state = State.CLOSED;
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public Judge0Guard(Settings settings) {
+        this.settings = settings;
+        this.limit = settings.initialLimit();
+        this.window = new boolean[settings.windowSize()];
+    }
+
+    /**
+     * Runs the call under a permit. With {@code timed} false its latency never counts as
+     * congestion, for calls whose duration is the program's run time rather than the judge's load;
+     * failures still cut the limit.
+     */
+    <T> T call(Supplier<T> call, boolean timed) {
+        boolean probe = acquire();
+        long started = System.nanoTime();
+        boolean failed = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            failed = isJudgeFailure(e);
+            throw e;
+        } finally {
+            long latencyMs = timed ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) : 0;
+            release(probe, failed, latencyMs);
+        }
+    }
+
+    /**
+     * Fails fast while the circuit is open, without taking a permit.
+     */
+    void ensureAvailable() {
+        lock.lock();
+        try {
+            updateState();
+            if (state == State.OPEN) {
+                throw new JudgeBusyException("Judge is unavailable", retryAfterSeconds());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether {@link #call} would be let in right now: the circuit is closed, or half-open
+     * with a probe slot free. A closed circuit at its limit still admits callers, who wait.
+     */
+    boolean canAdmit() {
+        lock.lock();
+        try {
+            updateState();
+            return state == State.CLOSED
+                    || (state == State.HALF_OPEN && probesInFlight < settings.halfOpenProbes());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        lock.lock();
+        try {
+            updateState();
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquire() {
+        lock.lock();
+        try {
+            updateState();
+            if (state == State.OPEN) {
+                throw new JudgeBusyException("Judge is unavailable", retryAfterSeconds());
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= settings.halfOpenProbes()) {
+                    throw new JudgeBusyException("Judge is recovering", 1);
+                }
+                probesInFlight++;
+                inFlight++;
+                return true;
+            }
+
+            long remaining = TimeUnit.MILLISECONDS.toNanos(settings.acquireTimeoutMs());
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    throw new JudgeBusyException("Judge is busy", 1);
+                }
+                try {
+                    remaining = permitFreed.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new JudgeBusyException("Interrupted while waiting for the judge", 1);
+                }
+            }
+            inFlight++;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(boolean probe, boolean failed, long latencyMs) {
+        lock.lock();
+        try {
+            inFlight--;
+            permitFreed.signal();
+
+            if (failed || latencyMs > settings.latencyThresholdMs()) {
+                limit = Math.max(settings.minLimit(), limit * settings.decrease());
+            } else {
+                limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+            }
+
+            if (probe) {
+                probesInFlight--;
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                if (failed) {
+                    open();
+                } else if (++probeSuccesses >= settings.halfOpenProbes()) {
+                    state = State.CLOSED;
+                    resetWindow();
+                }
+                return;
+            }
+
+            recordOutcome(failed);
+            if (state == State.CLOSED && windowCount >= settings.minCalls()
+                    && (double) windowFailures / windowCount >= settings.failureRateThreshold()) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= settings.openMs()) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        // Start from the floor after recovering instead of the limit that overloaded the judge
+        limit = settings.minLimit();
+    }
+
+    private void recordOutcome(boolean failed) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void resetWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private long retryAfterSeconds() {
+        long remainingMs = settings.openMs() - (System.currentTimeMillis() - openedAt);
+        return Math.max(1, (remainingMs + 999) / 1000);
+    }
+
+    // Timeouts, connection errors, 5xx and 429 say the judge is in trouble; other 4xx are our own bad requests
+    private static boolean isJudgeFailure(RuntimeException e) {
+        if (e instanceof ResourceAccessException || e instanceof HttpServerErrorException) {
+            return true;
+        }
+        return e instanceof HttpStatusCodeException statusException
+                && statusException.getStatusCode().value() == 429;
+    }
+}
@@ -0,0 +1,178 @@
+package com.uni.cookoff.services.judge;
+
+import com.uni.cookoff.dto.request.JudgeSubmission;
+import com.uni.cookoff.dto.request.JudgeToken;
+import com.uni.cookoff.dto.response.BatchSubmissionResponse;
+import com.uni.cookoff.dto.response.JudgeResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "judge.client", havingValue = "judge0", matchIfMissing = true)
+@Slf4j
+public class Judge0HttpClient implements JudgeClient {
+
+    private final RestTemplate restTemplate;
+    private final JudgeRequestWriter requestWriter;
+    private final Judge0NodePool nodePool;
+
+    public Judge0HttpClient(@Qualifier("judge0RestTemplate") RestTemplate restTemplate,
+                            JudgeRequestWriter requestWriter,
+                            Judge0NodePool nodePool) {
+        this.restTemplate = restTemplate;
+        this.requestWriter = requestWriter;
+        this.nodePool = nodePool;
+    }
+
+    @Override
+    public void ensureAvailable() {
+        nodePool.pick(Judge0Node.Kind.BATCH);
+    }
+
+    @Override
+    public JudgeResponse run(JudgeSubmission submission) {
+        Judge0Node node = nodePool.pick(Judge0Node.Kind.RUN);
+        String url = node.uri() + "/submissions?base64_encoded=false&wait=true";
+        RequestCallback body = streamingBody(node, out -> requestWriter.writeSubmission(submission, out));
+
+        try {
+            ResponseEntity<JudgeResponse> response = node.call(Judge0Node.Kind.RUN, () -> restTemplate.execute(
+                    url, HttpMethod.POST, body, restTemplate.responseEntityExtractor(JudgeResponse.class)));
+            if (response != null && response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return response.getBody();
+            }
+            throw new RuntimeException("Judge0 failed: " + (response == null ? "no response" : response.getStatusCode()));
+        } catch (HttpClientErrorException e) {
+            log.error("Judge0 API Error: Status={}, Response={}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new RuntimeException("Judge0 API Error: " + e.getResponseBodyAsString(), e);
+        }
+    }
+
+    @Override
+    public List<JudgeToken> submitBatch(List<JudgeSubmission> submissions) {
+        Judge0Node node = nodePool.pick(Judge0Node.Kind.BATCH);
+        String url = node.uri() + "/submissions/batch?base64_encoded=false";
+        RequestCallback body = streamingBody(node, out -> requestWriter.writeBatch(submissions, out));
+
+        try {
+            ResponseEntity<JudgeToken[]> response = node.call(Judge0Node.Kind.BATCH, () -> restTemplate.execute(
+                    url, HttpMethod.POST, body, restTemplate.responseEntityExtractor(JudgeToken[].class)));
+            if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                throw new RuntimeException("Judge0 batch submit failed: " + (response == null ? "no response" : response.getStatusCode()));
+            }
+            List<JudgeToken> tokens = Arrays.asList(response.getBody());
+            nodePool.remember(tokens.stream().map(JudgeToken::getToken).toList(), node);
+            return tokens;
+        } catch (HttpClientErrorException e) {
+            log.error("Judge0 API Error: Status={}, Response={}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new RuntimeException("Judge0 API Error: " + e.getResponseBodyAsString(), e);
+        }
+    }
+
+    /**
+     * Polls each token on the node that issued it. Tokens whose owner is unknown, e.g. after a
+     * restart, are looked up on every routable node until one recognises them.
+     */
+    @Override
+    public List<JudgeResponse> fetchBatch(List<String> tokens, String fields) {
+        JudgeResponse[] results = new JudgeResponse[tokens.size()];
+        Map<Judge0Node, List<Integer>> byNode = new LinkedHashMap<>();
+        List<Integer> unknown = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            Judge0Node owner = nodePool.ownerOf(tokens.get(i));
+            if (owner != null) {
+                byNode.computeIfAbsent(owner, n -> new ArrayList<>()).add(i);
+            } else {
+                unknown.add(i);
+            }
+        }
+
+        for (Map.Entry<Judge0Node, List<Integer>> entry : byNode.entrySet()) {
+            fill(entry.getKey(), entry.getValue(), tokens, fields, results);
+        }
+
+        for (Judge0Node node : nodePool.routableNodes()) {
+            if (unknown.isEmpty()) {
+                break;
+            }
+            try {
+                fill(node, unknown, tokens, fields, results);
+            } catch (Exception e) {
+                log.debug("Token lookup on {} failed: {}", node.uri(), e.getMessage());
+                continue;
+            }
+            List<String> found = new ArrayList<>();
+            List<Integer> stillUnknown = new ArrayList<>();
+            for (int index : unknown) {
+                if (results[index] != null) {
+                    found.add(tokens.get(index));
+                } else {
+                    stillUnknown.add(index);
+                }
+            }
+            nodePool.remember(found, node);
+            unknown = stillUnknown;
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void fill(Judge0Node node, List<Integer> indexes, List<String> tokens, String fields, JudgeResponse[] results) {
+        String url = node.uri() + "/submissions/batch?tokens={tokens}&base64_encoded=false&fields={fields}";
+        HttpEntity<Void> entity = new HttpEntity<>(nodePool.headersFor(node));
+        String joined = String.join(",", indexes.stream().map(tokens::get).toList());
+
+        ResponseEntity<BatchSubmissionResponse> response = node.call(Judge0Node.Kind.BATCH, () -> restTemplate.exchange(
+                url, HttpMethod.GET, entity, BatchSubmissionResponse.class, joined, fields));
+
+        if (response.getBody() == null || response.getBody().getSubmissions() == null) {
+            throw new RuntimeException("Judge0 batch poll returned no body: " + response.getStatusCode());
+        }
+        List<JudgeResponse> submissions = response.getBody().getSubmissions();
+        for (int i = 0; i < indexes.size() && i < submissions.size(); i++) {
+            results[indexes.get(i)] = submissions.get(i);
+        }
+    }
+
+    private interface BodyWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes the JSON body directly to the connection instead of building it in memory first.
+     * getBody() of the HttpComponents request buffers everything until execute, so the body is
+     * handed over through setBody and written (chunked) while the request is sent.
+     */
+    private RequestCallback streamingBody(Judge0Node node, BodyWriter writer) {
+        return request -> {
+            request.getHeaders().addAll(nodePool.headersFor(node));
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (request instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(out -> write(writer, out));
+            } else {
+                write(writer, request.getBody());
+            }
+        };
+    }
+
+    private static void write(BodyWriter writer, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, 8192);
+        writer.write(out);
+        out.flush();
+    }
+}
@@ -0,0 +1,104 @@
+package com.uni.cookoff.services.judge;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * One Judge0 instance: its own guard, the calls currently outstanding against it,
+ * a smoothed latency per kind of call and the queue state from the last probe.
+ * A wait=true run takes as long as the program does while a batch call returns at once,
+ * so the two are tracked separately and a node is scored by the kind it is picked for.
+ */
+public class Judge0Node {
+
+    public enum Kind { RUN, BATCH }
+
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final double INITIAL_LATENCY_MS = 100;
+
+    private final String uri;
+    private final Judge0Guard guard;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // EWMAs stored as double bits so concurrent calls update them without losing samples
+    private final AtomicLong runLatencyMs = new AtomicLong(Double.doubleToLongBits(INITIAL_LATENCY_MS));
+    private final AtomicLong batchLatencyMs = new AtomicLong(Double.doubleToLongBits(INITIAL_LATENCY_MS));
+
+    private volatile boolean healthy = true;
+    private volatile int queueSize;
+    private volatile int workers = 1;
+
+    Judge0Node(String uri, Judge0Guard guard) {
+        this.uri = uri;
+        this.guard = guard;
+    }
+
+    <T> T call(Kind kind, Supplier<T> call) {
+        outstanding.incrementAndGet();
+        long started = System.nanoTime();
+        try {
+            // A wait=true run lasts as long as the program, up to its time limit, so only batch calls measure congestion
+            return guard.call(call, kind == Kind.BATCH);
+        } finally {
+            outstanding.decrementAndGet();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            latency(kind).getAndUpdate(bits -> {
+                double current = Double.longBitsToDouble(bits);
+                return Double.doubleToLongBits(current + LATENCY_ALPHA * (elapsed - current));
+            });
+        }
+    }
+
+    /**
+     * Lower is better: the work waiting on this node, counted in requests, scaled by how
+     * long a request of this kind takes there.
+     */
+    double score(Kind kind) {
+        double backlog = outstanding.get() + 1 + (double) queueSize / Math.max(1, workers);
+        return backlog * latencyMs(kind);
+    }
+
+    /**
+     * Whether a call could get a permit now: the circuit is not open and, while half-open,
+     * a probe slot is still free.
+     */
+    boolean isRoutable() {
+        return guard.canAdmit();
+    }
+
+    void probed(boolean healthy, int queueSize, int workers) {
+        this.healthy = healthy;
+        this.queueSize = queueSize;
+        this.workers = workers;
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    Judge0Guard guard() {
+        return guard;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    double latencyMs(Kind kind) {
+        return Double.longBitsToDouble(latency(kind).get());
+    }
+
+    private AtomicLong latency(Kind kind) {
+        return kind == Kind.RUN ? runLatencyMs : batchLatencyMs;
+    }
+
+    int queueSize() {
+        return queueSize;
+    }
+}
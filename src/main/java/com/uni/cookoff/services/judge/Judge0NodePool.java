@@ -0,0 +1,186 @@
+package com.uni.cookoff.services.judge;
+
+import com.uni.cookoff.Exception.JudgeBusyException;
+import com.uni.cookoff.dto.response.WorkerQueueStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Judge0 instances listed in {@code judge0.uris} (default: the single {@code judge0.uri}).
+ * New work goes to the routable node with the lowest {@link Judge0Node#score}, i.e. the fewest
+ * outstanding requests plus probed queue backlog, weighted by measured latency for that kind of
+ * call. A node is routable while its guard would admit a call: not open, and not half-open with
+ * every probe slot taken. Nodes are probed
+ * through GET /workers; a node that fails the probe only gets traffic when no healthy node is left.
+ * Tokens are remembered with the node that issued them so polling goes back to the owner.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.client", havingValue = "judge0", matchIfMissing = true)
+@Slf4j
+public class Judge0NodePool {
+
+    private final RestTemplate restTemplate;
+    private final List<Judge0Node> nodes;
+    private final Map<String, Judge0Node> tokenOwners;
+
+    @Value("${judge0.token}")
+    private String judge0Token;
+
+    @Value("${judge0.nodes.probe-enabled:true}")
+    private boolean probeEnabled;
+
+    public Judge0NodePool(@Qualifier("judge0RestTemplate") RestTemplate restTemplate,
+                          Judge0Guard.Settings guardSettings,
+                          MeterRegistry meterRegistry,
+                          @Value("${judge0.uris:${judge0.uri}}") String[] uris,
+                          @Value("${judge0.nodes.token-cache-size:100000}") int tokenCacheSize) {
+        this.restTemplate = restTemplate;
+        this.nodes = Arrays.stream(uris)
+                .map(String::trim)
+                .filter(uri -> !uri.isEmpty())
+                .map(uri -> new Judge0Node(uri, new Judge0Guard(guardSettings)))
+                .toList();
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("No Judge0 URI configured");
+        }
+        this.tokenOwners = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Judge0Node> eldest) {
+                return size() > tokenCacheSize;
+            }
+        };
+
+        for (Judge0Node node : nodes) {
+            Gauge.builder("cookoff.judge0.concurrency.limit", node.guard(), Judge0Guard::limit)
+                    .tag("node", node.uri())
+                    .register(meterRegistry);
+            Gauge.builder("cookoff.judge0.concurrency.in-flight", node.guard(), Judge0Guard::inFlight)
+                    .tag("node", node.uri())
+                    .register(meterRegistry);
+            Gauge.builder("cookoff.judge0.circuit.state", node.guard(), g -> g.state().ordinal())
+                    .description("0 = closed, 1 = open, 2 = half-open")
+                    .tag("node", node.uri())
+                    .register(meterRegistry);
+            for (Judge0Node.Kind kind : Judge0Node.Kind.values()) {
+                Gauge.builder("cookoff.judge0.node.latency", node, n -> n.latencyMs(kind))
+                        .description("Smoothed call latency in milliseconds")
+                        .tag("node", node.uri())
+                        .tag("kind", kind.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+            Gauge.builder("cookoff.judge0.node.queue", node, Judge0Node::queueSize)
+                    .tag("node", node.uri())
+                    .register(meterRegistry);
+        }
+    }
+
+    public Judge0Node pick(Judge0Node.Kind kind) {
+        Judge0Node best = null;
+        for (Judge0Node node : nodes) {
+            if (node.isHealthy() && node.isRoutable() && (best == null || node.score(kind) < best.score(kind))) {
+                best = node;
+            }
+        }
+        if (best == null) {
+            best = nodes.stream().filter(Judge0Node::isRoutable).min(Comparator.comparingDouble(n -> n.score(kind))).orElse(null);
+        }
+        if (best == null) {
+            // Every node is open or out of probe slots; an open first node reports when it will try again
+            nodes.get(0).guard().ensureAvailable();
+            throw new JudgeBusyException("All judge nodes are unavailable", 1);
+        }
+        return best;
+    }
+
+    public List<Judge0Node> nodes() {
+        return nodes;
+    }
+
+    public void remember(List<String> tokens, Judge0Node node) {
+        synchronized (tokenOwners) {
+            for (String token : tokens) {
+                tokenOwners.put(token, node);
+            }
+        }
+    }
+
+    /**
+     * The node that issued the token, or {@code null} if it was issued before a restart or
+     * has been evicted. With a single node the answer is always that node.
+     */
+    public Judge0Node ownerOf(String token) {
+        if (nodes.size() == 1) {
+            return nodes.get(0);
+        }
+        synchronized (tokenOwners) {
+            return tokenOwners.get(token);
+        }
+    }
+
+    public HttpHeaders headersFor(Judge0Node node) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        if (node.uri().contains("rapidapi")) {
+            headers.set("x-rapidapi-host", "judge0-ce.p.rapidapi.com");
+            headers.set("x-rapidapi-key", judge0Token);
+        } else {
+            headers.set("Authorization", "Bearer " + judge0Token);
+        }
+
+        return headers;
+    }
+
+    @Scheduled(fixedDelayString = "${judge0.nodes.probe-interval-ms:5000}")
+    public void probe() {
+        if (!probeEnabled) {
+            return;
+        }
+        for (Judge0Node node : nodes) {
+            try {
+                WorkerQueueStatus[] queues = restTemplate.exchange(node.uri() + "/workers", HttpMethod.GET,
+                        new HttpEntity<>(headersFor(node)), WorkerQueueStatus[].class).getBody();
+                int queued = 0;
+                int workers = 0;
+                for (WorkerQueueStatus queue : queues == null ? new WorkerQueueStatus[0] : queues) {
+                    queued += queue.getSize();
+                    workers += queue.getAvailable();
+                }
+                node.probed(workers > 0, queued, workers);
+            } catch (Exception e) {
+                if (node.isHealthy()) {
+                    log.warn("Judge0 node {} failed its health probe: {}", node.uri(), e.getMessage());
+                }
+                node.probed(false, node.queueSize(), 1);
+            }
+        }
+    }
+
+    List<Judge0Node> routableNodes() {
+        List<Judge0Node> routable = new ArrayList<>();
+        for (Judge0Node node : nodes) {
+            if (node.isRoutable()) {
+                routable.add(node);
+            }
+        }
+        return routable;
+    }
+}
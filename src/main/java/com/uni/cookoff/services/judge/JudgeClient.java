@@ -0,0 +1,38 @@
+package com.uni.cookoff.services.judge;
+
+import com.uni.cookoff.dto.request.JudgeSubmission;
+import com.uni.cookoff.dto.request.JudgeToken;
+import com.uni.cookoff.dto.response.JudgeResponse;
+
+import java.util.List;
+
+/**
+ * Everything the rest of the application needs from a judge backend.
+ * Selected with the {@code judge.client} property: {@code judge0} (default) or {@code local}.
+ */
+public interface JudgeClient {
+
+    /**
+     * Runs one submission and blocks until its verdict is available.
+     */
+    JudgeResponse run(JudgeSubmission submission);
+
+    /**
+     * Queues a batch of submissions and returns one token per submission, in order.
+     * Submissions carrying a callback URL get their verdict PUT to it when done.
+     */
+    List<JudgeToken> submitBatch(List<JudgeSubmission> submissions);
+
+    /**
+     * Looks up the current state of previously submitted tokens, in the order given.
+     * Unknown tokens come back as {@code null}.
+     */
+    List<JudgeResponse> fetchBatch(List<String> tokens, String fields);
+
+    /**
+     * Throws {@link com.uni.cookoff.Exception.JudgeBusyException} when the judge is known to be
+     * unavailable, so callers can refuse work before doing any of it.
+     */
+    default void ensureAvailable() {
+    }
+}
@@ -0,0 +1,76 @@
+package com.uni.cookoff.services.judge;
+
+import com.uni.cookoff.models.Testcase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The "stdin" member of a test case, already JSON-escaped and UTF-8 encoded, so every
+ * submission against the test case copies bytes instead of escaping the same string again.
+ * Keyed by the content hash, so an edited input gets a new entry and identical inputs
+ * share one. Bounded by total size; blob-backed inputs are streamed from the blob store
+ * instead and never cached here.
+ */
+@Component
+public class JudgePayloadCache {
+
+    private static final byte[] STDIN = "\"stdin\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> fragments = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public JudgePayloadCache(@Value("${judge0.payload-cache.max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached fragment, or {@code null} when the input cannot be served from
+     * the cache (blob-backed or missing hash).
+     */
+    public byte[] fragmentFor(Testcase testCase) {
+        if (testCase.getInput() == null || testCase.getInputHash() == null) {
+            return null;
+        }
+
+        String key = testCase.getInputHash();
+        synchronized (fragments) {
+            byte[] fragment = fragments.get(key);
+            if (fragment != null) {
+                return fragment;
+            }
+        }
+
+        byte[] fragment = encode(testCase.getInput());
+        synchronized (fragments) {
+            if (fragments.putIfAbsent(key, fragment) == null) {
+                bytes += fragment.length;
+                Iterator<Map.Entry<String, byte[]>> eldest = fragments.entrySet().iterator();
+                while (bytes > maxBytes && eldest.hasNext()) {
+                    bytes -= eldest.next().getValue().length;
+                    eldest.remove();
+                }
+            }
+        }
+        return fragment;
+    }
+
+    static byte[] encode(String input) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length() + 24);
+            out.write(STDIN);
+            JsonEscaper.writeString(input, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
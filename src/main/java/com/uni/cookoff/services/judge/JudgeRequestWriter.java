@@ -0,0 +1,128 @@
+package com.uni.cookoff.services.judge;
+
+import com.uni.cookoff.dto.request.JudgeSubmission;
+import com.uni.cookoff.services.BlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Serializes Judge0 submission bodies straight onto the request stream.
+ * Blob-backed input and expected output are escaped from their memory mappings,
+ * so large test cases never become Strings or byte arrays on the heap. Small inputs come
+ * pre-encoded from {@link JudgePayloadCache}, and the source code of a batch is escaped once.
+ * Produces the same JSON as Jackson would for {@link JudgeSubmission}.
+ */
+@Component
+@RequiredArgsConstructor
+public class JudgeRequestWriter {
+
+    private static final byte[] BATCH_START = ascii("{\"submissions\":[");
+    private static final byte[] BATCH_END = ascii("]}");
+
+    private final BlobStore blobStore;
+
+    public void writeBatch(List<JudgeSubmission> submissions, OutputStream out) throws IOException {
+        out.write(BATCH_START);
+        String source = null;
+        byte[] encodedSource = null;
+        for (int i = 0; i < submissions.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            JudgeSubmission submission = submissions.get(i);
+            // Every entry of a batch normally carries the same source, so it is escaped only once
+            if (submission.getSourceCode() != null && !submission.getSourceCode().equals(source)) {
+                source = submission.getSourceCode();
+                encodedSource = encode(source);
+            }
+            write(submission, submission.getSourceCode() == null ? null : encodedSource, out);
+        }
+        out.write(BATCH_END);
+    }
+
+    public void writeSubmission(JudgeSubmission submission, OutputStream out) throws IOException {
+        write(submission, submission.getSourceCode() == null ? null : encode(submission.getSourceCode()), out);
+    }
+
+    private void write(JudgeSubmission submission, byte[] encodedSource, OutputStream out) throws IOException {
+        out.write('{');
+        boolean first = true;
+        if (submission.getLanguageId() != null) {
+            first = writeRaw("language_id", submission.getLanguageId().toString(), first, out);
+        }
+        if (encodedSource != null) {
+            writeName("source_code", first, out);
+            out.write(encodedSource);
+            first = false;
+        }
+        if (submission.getEncodedPayload() != null) {
+            if (!first) {
+                out.write(',');
+            }
+            out.write(submission.getEncodedPayload());
+            first = false;
+        } else if (submission.getInputBlob() != null) {
+            first = writeBlob("stdin", submission.getInputBlob(), first, out);
+        } else if (submission.getInput() != null) {
+            first = writeString("stdin", submission.getInput(), first, out);
+        }
+        if (submission.getOutputBlob() != null) {
+            first = writeBlob("expected_output", submission.getOutputBlob(), first, out);
+        } else if (submission.getOutput() != null) {
+            first = writeString("expected_output", submission.getOutput(), first, out);
+        }
+        if (submission.getRuntime() != null) {
+            first = writeRaw("cpu_time_limit", submission.getRuntime().toPlainString(), first, out);
+        }
+        if (submission.getCallback() != null) {
+            first = writeString("callback_url", submission.getCallback(), first, out);
+        }
+        if (submission.getMemoryLimit() != null) {
+            writeRaw("memory_limit", submission.getMemoryLimit().toString(), first, out);
+        }
+        out.write('}');
+    }
+
+    private boolean writeRaw(String name, String value, boolean first, OutputStream out) throws IOException {
+        writeName(name, first, out);
+        out.write(ascii(value));
+        return false;
+    }
+
+    private boolean writeString(String name, String value, boolean first, OutputStream out) throws IOException {
+        writeName(name, first, out);
+        JsonEscaper.writeString(value, out);
+        return false;
+    }
+
+    private boolean writeBlob(String name, String hash, boolean first, OutputStream out) throws IOException {
+        writeName(name, first, out);
+        JsonEscaper.writeString(blobStore.read(hash), out);
+        return false;
+    }
+
+    private void writeName(String name, boolean first, OutputStream out) throws IOException {
+        if (!first) {
+            out.write(',');
+        }
+        out.write('"');
+        out.write(ascii(name));
+        out.write(ascii("\":"));
+    }
+
+    private static byte[] encode(String value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length() + 16);
+        JsonEscaper.writeString(value, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
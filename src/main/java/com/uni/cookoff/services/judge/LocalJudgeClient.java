@@ -0,0 +1,382 @@
+package com.uni.cookoff.services.judge;
+
+import com.uni.cookoff.dto.request.JudgeSubmission;
+import com.uni.cookoff.dto.request.JudgeToken;
+import com.uni.cookoff.dto.response.JudgeResponse;
+import com.uni.cookoff.dto.response.JudgeStatus;
+import com.uni.cookoff.services.BlobStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Compiles and runs submissions on this machine with {@link ProcessBuilder}.
+ * Meant for load tests and small practice rounds, not for untrusted contest traffic:
+ * the only isolation is a CPU/memory ulimit and a wall-clock timeout.
+ * Time limits apply to the CPU time of the program, as with Judge0, so time spent waiting
+ * on process startup or I/O does not count; memory usage is not reported.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.client", havingValue = "local")
+@Slf4j
+public class LocalJudgeClient implements JudgeClient {
+
+    private record Language(String fileName, List<String> compile, List<String> run, boolean managedMemory) {
+    }
+
+    private record Outcome(JudgeResponse response, long finishedAt) {
+    }
+
+    // Keyed by Judge0 CE language ids so requests look the same for both clients
+    private static final Map<Integer, Language> LANGUAGES = Map.of(
+            50, new Language("main.c", List.of("gcc", "-O2", "-o", "main", "main.c", "-lm"), List.of("./main"), false),
+            54, new Language("main.cpp", List.of("g++", "-O2", "-o", "main", "main.cpp"), List.of("./main"), false),
+            62, new Language("Main.java", List.of("javac", "Main.java"), List.of("java", "-cp", ".", "Main"), true),
+            63, new Language("main.js", null, List.of("node", "main.js"), false),
+            71, new Language("main.py", null, List.of("python3", "main.py"), false)
+    );
+
+    private static final long RESULT_RETENTION_MS = TimeUnit.MINUTES.toMillis(10);
+
+    // sh reports a child killed by SIGXCPU (the ulimit -t signal) as 128 + 24
+    private static final int EXIT_SIGXCPU = 152;
+    private static final Pattern TIMES_FIELD = Pattern.compile("(\\d+)m([\\d.]+)s");
+
+    private final RestTemplate restTemplate;
+    private final BlobStore blobStore;
+    private final Path workDir;
+    private final int maxOutputBytes;
+    private final int defaultMemoryKb;
+    private final ExecutorService executor;
+    private final Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+
+    public LocalJudgeClient(@Qualifier("restTemplate") RestTemplate restTemplate,
+                            BlobStore blobStore,
+                            @Value("${judge.local.work-dir:${java.io.tmpdir}/cookoff-judge}") String workDir,
+                            @Value("${judge.local.workers:0}") int workers,
+                            @Value("${judge.local.max-output-bytes:1048576}") int maxOutputBytes,
+                            @Value("${judge.local.default-memory-kb:262144}") int defaultMemoryKb) throws IOException {
+        this.restTemplate = restTemplate;
+        this.blobStore = blobStore;
+        this.workDir = Files.createDirectories(Path.of(workDir));
+        this.maxOutputBytes = maxOutputBytes;
+        this.defaultMemoryKb = defaultMemoryKb;
+        this.executor = Executors.newFixedThreadPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public JudgeResponse run(JudgeSubmission submission) {
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory(workDir, "run-");
+            JudgeResponse compileFailure = compile(submission, dir);
+            if (compileFailure != null) {
+                return compileFailure;
+            }
+            return execute(submission, dir, UUID.randomUUID().toString());
+        } catch (IOException e) {
+            log.error("Local judge failed: {}", e.getMessage(), e);
+            return status("13", "Internal Error", null);
+        } finally {
+            deleteQuietly(dir);
+        }
+    }
+
+    @Override
+    public List<JudgeToken> submitBatch(List<JudgeSubmission> submissions) {
+        purgeExpired();
+
+        List<JudgeToken> tokens = new ArrayList<>(submissions.size());
+        for (int i = 0; i < submissions.size(); i++) {
+            String token = UUID.randomUUID().toString();
+            outcomes.put(token, new Outcome(status("1", "In Queue", token), 0));
+            tokens.add(JudgeToken.builder().token(token).build());
+        }
+
+        executor.execute(() -> runBatch(submissions, tokens));
+        return tokens;
+    }
+
+    @Override
+    public List<JudgeResponse> fetchBatch(List<String> tokens, String fields) {
+        List<JudgeResponse> responses = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Outcome outcome = outcomes.get(token);
+            responses.add(outcome == null ? null : outcome.response());
+        }
+        return responses;
+    }
+
+    // A batch is one submission against many test cases, so it is compiled once and run per test case
+    private void runBatch(List<JudgeSubmission> submissions, List<JudgeToken> tokens) {
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory(workDir, "batch-");
+            JudgeResponse compileFailure = submissions.isEmpty() ? null : compile(submissions.get(0), dir);
+
+            for (int i = 0; i < submissions.size(); i++) {
+                JudgeSubmission submission = submissions.get(i);
+                String token = tokens.get(i).getToken();
+                outcomes.put(token, new Outcome(status("2", "Processing", token), 0));
+
+                JudgeResponse response;
+                if (compileFailure != null) {
+                    // Either a compile error or a submission that cannot be built at all; keep whichever it was
+                    response = status(compileFailure.getStatus().getId(), compileFailure.getStatus().getDescription(), token);
+                    response.setCompilerOutput(compileFailure.getCompilerOutput());
+                    response.setMessage(compileFailure.getMessage());
+                } else {
+                    response = execute(submission, dir, token);
+                }
+                finish(token, submission, response);
+            }
+        } catch (Exception e) {
+            log.error("Local judge batch failed: {}", e.getMessage(), e);
+            for (int i = 0; i < submissions.size(); i++) {
+                String token = tokens.get(i).getToken();
+                Outcome outcome = outcomes.get(token);
+                if (outcome == null || outcome.finishedAt() == 0) {
+                    finish(token, submissions.get(i), status("13", "Internal Error", token));
+                }
+            }
+        } finally {
+            deleteQuietly(dir);
+        }
+    }
+
+    private void finish(String token, JudgeSubmission submission, JudgeResponse response) {
+        response.setToken(token);
+        outcomes.put(token, new Outcome(response, System.currentTimeMillis()));
+
+        if (submission.getCallback() != null) {
+            try {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                restTemplate.exchange(submission.getCallback(), HttpMethod.PUT, new HttpEntity<>(callbackBody(response), headers), Void.class);
+            } catch (Exception e) {
+                log.warn("Local judge callback to {} failed: {}", submission.getCallback(), e.getMessage());
+            }
+        }
+    }
+
+    // Judge0 sends callbacks with base64_encoded=true, so stdout is encoded the same way here
+    private JudgeResponse callbackBody(JudgeResponse response) {
+        return JudgeResponse.builder()
+                .token(response.getToken())
+                .status(response.getStatus())
+                .time(response.getTime())
+                .memory(response.getMemory())
+                .stdOut(response.getStdOut() == null ? null
+                        : Base64.getMimeEncoder().encodeToString(response.getStdOut().getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    private JudgeResponse compile(JudgeSubmission submission, Path dir) throws IOException {
+        Language language = LANGUAGES.get(submission.getLanguageId());
+        if (language == null) {
+            JudgeResponse response = status("13", "Internal Error", null);
+            response.setMessage("Unsupported language id: " + submission.getLanguageId());
+            return response;
+        }
+
+        Files.writeString(dir.resolve(language.fileName()), submission.getSourceCode(), StandardCharsets.UTF_8);
+        if (language.compile() == null) {
+            return null;
+        }
+
+        Path output = dir.resolve("compile.out");
+        Process process = new ProcessBuilder(language.compile())
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                JudgeResponse response = status("6", "Compilation Error", null);
+                response.setCompilerOutput("Compilation timed out");
+                return response;
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compiling", e);
+        }
+
+        if (process.exitValue() != 0) {
+            JudgeResponse response = status("6", "Compilation Error", null);
+            response.setCompilerOutput(readCapped(output));
+            return response;
+        }
+        return null;
+    }
+
+    private JudgeResponse execute(JudgeSubmission submission, Path dir, String token) throws IOException {
+        Language language = LANGUAGES.get(submission.getLanguageId());
+        double cpuLimit = submission.getRuntime() != null ? submission.getRuntime().doubleValue() : 2.0;
+        int memoryKb = submission.getMemoryLimit() != null ? submission.getMemoryLimit() : defaultMemoryKb;
+
+        Path stdin = dir.resolve(token + ".in");
+        Path stdout = dir.resolve(token + ".out");
+        Path stderr = dir.resolve(token + ".err");
+        if (submission.getInputBlob() != null) {
+            try (OutputStream out = Files.newOutputStream(stdin)) {
+                blobStore.writeTo(submission.getInputBlob(), out);
+            }
+        } else {
+            Files.writeString(stdin, submission.getInput() == null ? "" : submission.getInput(), StandardCharsets.UTF_8);
+        }
+        String expected = submission.getOutputBlob() != null
+                ? blobStore.readString(submission.getOutputBlob())
+                : submission.getOutput();
+
+        // The JVM reserves far more virtual memory than it uses, so Java gets a heap cap instead of ulimit -v.
+        // The program runs as a child of the shell so `times` can report its CPU time afterwards;
+        // the ulimit leaves a second of headroom so an overrun is measured rather than just killed.
+        Path cpuTimes = dir.resolve(token + ".cpu");
+        List<String> command = new ArrayList<>();
+        command.add("sh");
+        command.add("-c");
+        command.add((language.managedMemory() ? "" : "ulimit -v " + memoryKb + "; ")
+                + "ulimit -t " + ((long) Math.ceil(cpuLimit) + 1) + "; "
+                + "\"$@\"; status=$?; times > \"$CPU_TIMES\"; exit $status");
+        command.add("sh");
+        if (language.managedMemory()) {
+            command.add(language.run().get(0));
+            command.add("-Xmx" + memoryKb + "k");
+            command.addAll(language.run().subList(1, language.run().size()));
+        } else {
+            command.addAll(language.run());
+        }
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(dir.toFile())
+                .redirectInput(stdin.toFile())
+                .redirectOutput(stdout.toFile())
+                .redirectError(stderr.toFile());
+        builder.environment().put("CPU_TIMES", cpuTimes.toString());
+
+        long started = System.nanoTime();
+        Process process = builder.start();
+
+        boolean exited;
+        try {
+            exited = process.waitFor((long) Math.ceil(cpuLimit * 2 + 1), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            destroy(process);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running", e);
+        }
+        double elapsed = (System.nanoTime() - started) / 1_000_000_000.0;
+        double cpu = exited ? childCpuSeconds(cpuTimes) : Double.NaN;
+
+        JudgeResponse response;
+        if (!exited) {
+            // Sleeping or blocked programs use no CPU, so the wall clock still needs a bound
+            destroy(process);
+            response = status("5", "Time Limit Exceeded", token);
+        } else if (cpu > cpuLimit || process.exitValue() == EXIT_SIGXCPU) {
+            response = status("5", "Time Limit Exceeded", token);
+        } else if (process.exitValue() != 0) {
+            response = status("11", "Runtime Error (NZEC)", token);
+        } else if (expected != null
+                && !expected.stripTrailing().equals(readCapped(stdout).stripTrailing())) {
+            response = status("4", "Wrong Answer", token);
+        } else {
+            response = status("3", "Accepted", token);
+        }
+
+        response.setStdOut(readCapped(stdout));
+        response.setStdErr(readCapped(stderr));
+        response.setTime(String.format("%.3f", Double.isNaN(cpu) ? elapsed : cpu));
+        // Peak memory is not measured here; null rather than a made-up 0
+        response.setMemory(null);
+        return response;
+    }
+
+    // Second line of `times`: user and system time of the shell's children, e.g. "0m1.250s 0m0.020s"
+    private static double childCpuSeconds(Path cpuTimes) {
+        try {
+            List<String> lines = Files.readAllLines(cpuTimes);
+            if (lines.size() < 2) {
+                return Double.NaN;
+            }
+            double total = 0;
+            Matcher matcher = TIMES_FIELD.matcher(lines.get(1));
+            while (matcher.find()) {
+                total += Long.parseLong(matcher.group(1)) * 60 + Double.parseDouble(matcher.group(2));
+            }
+            return total;
+        } catch (IOException | NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // The program is the shell's child, so killing only the shell would leave it running
+    private static void destroy(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private String readCapped(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return new String(in.readNBytes(maxOutputBytes), StandardCharsets.UTF_8);
+        }
+    }
+
+    private JudgeResponse status(String id, String description, String token) {
+        return JudgeResponse.builder()
+                .token(token)
+                .status(JudgeStatus.builder().id(id).description(description).build())
+                .build();
+    }
+
+    private void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - RESULT_RETENTION_MS;
+        outcomes.values().removeIf(outcome -> outcome.finishedAt() != 0 && outcome.finishedAt() < cutoff);
+    }
+
+    private void deleteQuietly(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Could not clean up {}: {}", dir, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
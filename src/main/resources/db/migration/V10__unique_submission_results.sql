@@ -0,0 +1,9 @@
+-- Retried callbacks used to insert a result per attempt; keep the first one and make it impossible again
+DELETE r1 FROM submission_results r1
+  JOIN submission_results r2
+    ON r1.submission_id = r2.submission_id
+   AND r1.testcase_id = r2.testcase_id
+   AND r1.id > r2.id;
+
+ALTER TABLE submission_results
+  ADD CONSTRAINT uq_submission_results_submission_testcase UNIQUE (submission_id, testcase_id);
@@ -0,0 +1,11 @@
+-- Hashes for test cases saved before V7; SHA2 and LENGTH work on the stored UTF-8 bytes,
+-- so the values match what the application computes
+UPDATE testcases
+   SET input_hash = SHA2(`input`, 256),
+       input_size = LENGTH(`input`)
+ WHERE input_hash IS NULL AND `input` IS NOT NULL;
+
+UPDATE testcases
+   SET expected_output_hash = SHA2(`expected_output`, 256),
+       expected_output_size = LENGTH(`expected_output`)
+ WHERE expected_output_hash IS NULL AND `expected_output` IS NOT NULL;
@@ -0,0 +1,5 @@
+-- Outputs are compared by our own checker instead of Judge0's exact match
+ALTER TABLE questions
+  ADD COLUMN checker VARCHAR(32) NOT NULL DEFAULT 'exact',
+  ADD COLUMN checker_epsilon DOUBLE NULL,
+  ADD COLUMN checker_name VARCHAR(64) NULL;
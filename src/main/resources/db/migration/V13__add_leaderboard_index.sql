@@ -0,0 +1,2 @@
+-- Keyset pages of the leaderboard read (score DESC, id DESC) straight off this index
+CREATE INDEX idx_users_leaderboard ON users (is_banned, score, id);
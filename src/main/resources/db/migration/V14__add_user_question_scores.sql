@@ -0,0 +1,9 @@
+-- Best score of each user on each question, so a resubmission only adds its improvement to users.score
+CREATE TABLE user_question_scores (
+       user_id CHAR(36) NOT NULL,
+       question_id CHAR(36) NOT NULL,
+       best_score DOUBLE NOT NULL,
+       PRIMARY KEY (user_id, question_id),
+       FOREIGN KEY (user_id) REFERENCES users(id),
+       FOREIGN KEY (question_id) REFERENCES questions(id)
+);
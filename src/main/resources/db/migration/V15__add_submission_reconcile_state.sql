@@ -0,0 +1,6 @@
+-- The reconciler visits pending submissions least recently reconciled first and gives up after a number of passes
+ALTER TABLE submissions
+  ADD COLUMN reconcile_attempts INT NOT NULL DEFAULT 0,
+  ADD COLUMN reconciled_at TIMESTAMP NULL;
+
+CREATE INDEX idx_submissions_reconcile ON submissions (status(16), reconciled_at, submission_time);
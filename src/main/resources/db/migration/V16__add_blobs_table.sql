@@ -0,0 +1,7 @@
+-- Shared copy of blob store payloads; each node caches them on local disk from here
+CREATE TABLE blobs (
+       hash CHAR(64) NOT NULL,
+       size BIGINT NOT NULL,
+       data LONGBLOB NOT NULL,
+       PRIMARY KEY (hash)
+);
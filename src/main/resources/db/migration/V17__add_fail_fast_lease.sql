@@ -0,0 +1,4 @@
+-- Node that owns the wave plan of a stop-on-first-failure submission, renewed at every wave
+ALTER TABLE submissions
+  ADD COLUMN fail_fast_owner CHAR(36) NULL,
+  ADD COLUMN fail_fast_claimed_at TIMESTAMP NULL;
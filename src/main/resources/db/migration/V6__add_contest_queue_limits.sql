@@ -0,0 +1,4 @@
+-- Per-round limits for the submission queue; NULL falls back to the application defaults
+ALTER TABLE contests
+  ADD COLUMN submission_queue_capacity INT,
+  ADD COLUMN submission_queue_per_user INT;
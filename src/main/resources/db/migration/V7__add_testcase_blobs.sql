@@ -0,0 +1,8 @@
+-- Large test case payloads live in the blob store; the row keeps their SHA-256 and size
+ALTER TABLE testcases
+  MODIFY COLUMN `input` TEXT NULL,
+  MODIFY COLUMN `expected_output` TEXT NULL,
+  ADD COLUMN input_hash CHAR(64),
+  ADD COLUMN input_size BIGINT,
+  ADD COLUMN expected_output_hash CHAR(64),
+  ADD COLUMN expected_output_size BIGINT;
@@ -0,0 +1,3 @@
+-- Judge test cases in waves and skip the rest after the first non-accepted verdict
+ALTER TABLE questions
+  ADD COLUMN stop_on_first_failure BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,4 @@
+-- Per-round request rates per user for /runcode and /submit; NULL falls back to the application defaults
+ALTER TABLE contests
+  ADD COLUMN runcode_rate_per_minute INT,
+  ADD COLUMN submit_rate_per_minute INT;
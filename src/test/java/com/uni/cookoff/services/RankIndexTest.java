@@ -0,0 +1,119 @@
+package com.uni.cookoff.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankIndexTest {
+
+    private static final int USERS = 40;
+
+    @Test
+    void tiedUsersShareARankAndTheNextRankIsSkipped() {
+        RankIndex index = new RankIndex();
+        index.update("a", 30);
+        index.update("b", 20);
+        index.update("c", 20);
+        index.update("d", 10);
+
+        assertThat(index.rankOf("a")).isEqualTo(1);
+        assertThat(index.rankOf("b")).isEqualTo(2);
+        assertThat(index.rankOf("c")).isEqualTo(2);
+        assertThat(index.rankOf("d")).isEqualTo(4);
+        assertThat(index.rankOf("e")).isZero();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void updatingOrRemovingAUserMovesOnlyThatUser() {
+        RankIndex index = new RankIndex();
+        index.update("a", 10);
+        index.update("b", 10);
+        index.update("a", 5);
+
+        assertThat(index.rankOf("a")).isEqualTo(2);
+        assertThat(index.rankOf("b")).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(2);
+
+        index.remove("b");
+        index.remove("b");
+        assertThat(index.rankOf("a")).isEqualTo(1);
+        assertThat(index.rankOf("b")).isZero();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    // 0.0 == -0.0, but the tree orders them apart; an update between them must still move the node
+    @Test
+    void signedZeroesAreDistinctEntries() {
+        RankIndex index = new RankIndex();
+        index.update("a", 0.0);
+        index.update("a", -0.0);
+        index.remove("a");
+
+        assertThat(index.size()).isZero();
+        assertThat(index.rankOf("a")).isZero();
+    }
+
+    @Test
+    void matchesABruteForceRankingUnderRandomOperations() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            RankIndex index = new RankIndex();
+            Map<String, Double> expected = new HashMap<>();
+
+            for (int step = 0; step < 2000; step++) {
+                int op = random.nextInt(100);
+                if (op < 70) {
+                    String user = user(random);
+                    // Few distinct scores, so ties are common
+                    double score = random.nextInt(8) * 10;
+                    index.update(user, score);
+                    expected.put(user, score);
+                } else if (op < 97) {
+                    String user = user(random);
+                    index.remove(user);
+                    expected.remove(user);
+                } else {
+                    Map<String, Double> entries = new HashMap<>();
+                    int count = random.nextInt(USERS);
+                    for (int i = 0; i < count; i++) {
+                        entries.put(user(random), (double) random.nextInt(8) * 10);
+                    }
+                    index.replaceAll(entries);
+                    expected.clear();
+                    expected.putAll(entries);
+                }
+
+                assertThat(index.size()).as("size, seed %d step %d", seed, step).isEqualTo(expected.size());
+                for (int u = 0; u < USERS; u++) {
+                    String user = "user-" + u;
+                    assertThat(index.rankOf(user))
+                            .as("rank of %s, seed %d step %d", user, seed, step)
+                            .isEqualTo(bruteForceRank(expected, user));
+                }
+            }
+        }
+    }
+
+    private static int bruteForceRank(Map<String, Double> scores, String userId) {
+        Double score = scores.get(userId);
+        if (score == null) {
+            return 0;
+        }
+        int above = 0;
+        for (double other : scores.values()) {
+            if (other > score) {
+                above++;
+            }
+        }
+        return above + 1;
+    }
+
+    private static String user(Random random) {
+        return "user-" + random.nextInt(USERS);
+    }
+}
@@ -0,0 +1,54 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExactCheckerTest {
+
+    private final ExactChecker checker = new ExactChecker();
+
+    @Test
+    void ignoresTrailingWhitespaceOnEitherSide() throws IOException {
+        assertThat(accepts("1 2\n3", "1 2\n3")).isTrue();
+        assertThat(accepts("1 2\n3\n", "1 2\n3")).isTrue();
+        assertThat(accepts("1 2\n3", "1 2\n3 \t\n\n")).isTrue();
+        assertThat(accepts("1 2\n3\r\n", "1 2\n3\n")).isTrue();
+    }
+
+    @Test
+    void whitespaceBeforeTheEndMustMatch() throws IOException {
+        assertThat(accepts("1  2", "1 2")).isFalse();
+        assertThat(accepts("1 2 \n3", "1 2\n3")).isFalse();
+        assertThat(accepts("1\r\n2", "1\n2")).isFalse();
+        assertThat(accepts(" 1", "1")).isFalse();
+    }
+
+    @Test
+    void emptyOutput() throws IOException {
+        assertThat(accepts("", "")).isTrue();
+        assertThat(accepts("", "\n")).isTrue();
+        assertThat(accepts("\r\n", "")).isTrue();
+        assertThat(accepts("", "0")).isFalse();
+        assertThat(accepts("0", "")).isFalse();
+    }
+
+    @Test
+    void prefixIsNotEnough() throws IOException {
+        assertThat(accepts("12", "123")).isFalse();
+        assertThat(accepts("123", "12")).isFalse();
+    }
+
+    private boolean accepts(String actual, String expected) throws IOException {
+        return checker.accepts(stream(actual), stream(expected), Question.builder().build());
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
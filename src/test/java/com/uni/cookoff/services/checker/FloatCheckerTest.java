@@ -0,0 +1,84 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FloatCheckerTest {
+
+    private final FloatChecker checker = new FloatChecker(1e-6);
+
+    @Test
+    void usesTheDefaultEpsilonWhenTheQuestionHasNone() throws IOException {
+        Question question = Question.builder().build();
+        assertThat(accepts("0.1234567", "0.1234569", question)).isTrue();
+        assertThat(accepts("0.12345", "0.12346", question)).isFalse();
+    }
+
+    // 0.5 and the values below are exact in binary, so the boundaries are not blurred by rounding
+    @Test
+    void absoluteEpsilonBoundary() throws IOException {
+        Question question = Question.builder().checkerEpsilon(0.5).build();
+        assertThat(accepts("1.5", "1", question)).isTrue();
+        assertThat(accepts("0.5", "1", question)).isTrue();
+        assertThat(accepts("1.625", "1", question)).isFalse();
+    }
+
+    @Test
+    void relativeEpsilonBoundary() throws IOException {
+        Question question = Question.builder().checkerEpsilon(0.5).build();
+        assertThat(accepts("150", "100", question)).isTrue();
+        assertThat(accepts("-150", "-100", question)).isTrue();
+        assertThat(accepts("150.5", "100", question)).isFalse();
+    }
+
+    @Test
+    void differentSpellingsOfTheSameNumber() throws IOException {
+        Question question = Question.builder().checkerEpsilon(0.0).build();
+        assertThat(accepts("1e3", "1000", question)).isTrue();
+        assertThat(accepts("+2.50", "2.5", question)).isTrue();
+        assertThat(accepts("-0", "0", question)).isTrue();
+    }
+
+    @Test
+    void signAndExponentCharactersAloneAreNotNumbers() throws IOException {
+        Question question = Question.builder().checkerEpsilon(1.0).build();
+        assertThat(accepts("-", "-", question)).isTrue();
+        assertThat(accepts("e", "e", question)).isTrue();
+        assertThat(accepts("-", "0", question)).isFalse();
+        assertThat(accepts("e", "E", question)).isFalse();
+        assertThat(accepts("1e", "1", question)).isFalse();
+        assertThat(accepts("--1", "-1", question)).isFalse();
+    }
+
+    @Test
+    void wordsAndSuffixesMustMatchExactly() throws IOException {
+        Question question = Question.builder().checkerEpsilon(1.0).build();
+        assertThat(accepts("NaN", "NaN", question)).isTrue();
+        assertThat(accepts("Infinity", "1e308", question)).isFalse();
+        assertThat(accepts("1d", "1", question)).isFalse();
+        assertThat(accepts("YES", "yes", question)).isFalse();
+    }
+
+    @Test
+    void tokenCountsMustMatch() throws IOException {
+        Question question = Question.builder().build();
+        assertThat(accepts("1.0 2.0\r\n", "1 2", question)).isTrue();
+        assertThat(accepts("1.0", "1 2", question)).isFalse();
+        assertThat(accepts("", "", question)).isTrue();
+        assertThat(accepts("", "0", question)).isFalse();
+    }
+
+    private boolean accepts(String actual, String expected, Question question) throws IOException {
+        return checker.accepts(stream(actual), stream(expected), question);
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
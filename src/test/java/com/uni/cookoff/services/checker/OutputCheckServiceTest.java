@@ -0,0 +1,120 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import com.uni.cookoff.models.Testcase;
+import com.uni.cookoff.services.BlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputCheckServiceTest {
+
+    @TempDir
+    Path blobs;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Question exact = Question.builder().checker(ExactChecker.NAME).build();
+    private BlobStore blobStore;
+    private OutputCheckService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new BlobStore(null, blobs.toString(), 16);
+        service = new OutputCheckService(List.of(new ExactChecker(), new TokenChecker()), blobStore, meterRegistry);
+    }
+
+    // The blob was never stored, so any verdict here has to come from the size and hash alone
+    @Test
+    void matchingSizeAndHashAcceptWithoutReadingTheExpectedOutput() {
+        byte[] expected = bytes("1 2 3\n");
+        Testcase testCase = unstoredBlob(expected);
+
+        assertThat(service.accepts(exact, testCase, expected)).isTrue();
+        assertThat(fastPathHits()).isEqualTo(1);
+    }
+
+    @Test
+    void outputLongerThanTheExpectedOnceTrimmedIsRejectedUnread() {
+        Testcase testCase = unstoredBlob(bytes("1 2 3\n"));
+
+        assertThat(service.accepts(exact, testCase, bytes("1 2 3 4"))).isFalse();
+        assertThat(fastPathHits()).isEqualTo(1);
+    }
+
+    @Test
+    void trailingWhitespaceFallsBackToTheChecker() {
+        byte[] expected = bytes("42\n");
+        Testcase testCase = storedBlob(expected);
+
+        assertThat(service.accepts(exact, testCase, bytes("42\n\n\r\n"))).isTrue();
+        assertThat(service.accepts(exact, testCase, bytes("42"))).isTrue();
+        assertThat(fastPathHits()).isZero();
+    }
+
+    @Test
+    void sameSizeDifferentContentIsReadAndRejected() {
+        Testcase testCase = storedBlob(bytes("1 2 3\n"));
+
+        assertThat(service.accepts(exact, testCase, bytes("1 2 4\n"))).isFalse();
+        assertThat(fastPathHits()).isZero();
+    }
+
+    @Test
+    void emptyExpectedOutput() {
+        Testcase testCase = Testcase.builder().id("t").expectedOutput("")
+                .expectedOutputHash(BlobStore.sha256(new byte[0])).expectedOutputSize(0L).build();
+
+        assertThat(service.accepts(exact, testCase, new byte[0])).isTrue();
+        assertThat(service.accepts(exact, testCase, bytes("\n"))).isTrue();
+        assertThat(service.accepts(exact, testCase, bytes("0"))).isFalse();
+    }
+
+    @Test
+    void tolerantCheckersNeverTakeTheFastPath() {
+        Question token = Question.builder().checker("token").build();
+        Testcase testCase = storedBlob(bytes("1 2 3\n"));
+
+        assertThat(service.accepts(token, testCase, bytes("1\r\n2\r\n3\r\n"))).isTrue();
+        assertThat(service.accepts(token, testCase, bytes("1  2  3  "))).isTrue();
+        assertThat(fastPathHits()).isZero();
+    }
+
+    @Test
+    void inlineExpectedOutputIsUsedWithoutAHash() {
+        Testcase testCase = Testcase.builder().id("t").expectedOutput("yes\n").build();
+
+        assertThat(service.accepts(exact, testCase, bytes("yes"))).isTrue();
+        assertThat(service.accepts(exact, testCase, bytes("no"))).isFalse();
+        assertThat(fastPathHits()).isZero();
+    }
+
+    private Testcase unstoredBlob(byte[] expected) {
+        return Testcase.builder().id("t")
+                .expectedOutputHash(BlobStore.sha256(expected))
+                .expectedOutputSize((long) expected.length)
+                .build();
+    }
+
+    private Testcase storedBlob(byte[] expected) {
+        return Testcase.builder().id("t")
+                .expectedOutputHash(blobStore.put(expected))
+                .expectedOutputSize((long) expected.length)
+                .build();
+    }
+
+    private double fastPathHits() {
+        return meterRegistry.get("cookoff.checker.fast_path").counter().count();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
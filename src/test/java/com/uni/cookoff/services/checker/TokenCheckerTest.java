@@ -0,0 +1,60 @@
+package com.uni.cookoff.services.checker;
+
+import com.uni.cookoff.models.Question;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenCheckerTest {
+
+    private final TokenChecker checker = new TokenChecker();
+
+    @Test
+    void spacingAndLineEndingsDoNotMatter() throws IOException {
+        assertThat(accepts("1 2\r\n3\r\n", "1\n2 3")).isTrue();
+        assertThat(accepts("  1\t2\f3\u000B", "1 2 3\n")).isTrue();
+    }
+
+    @Test
+    void tokensMustMatchInOrder() throws IOException {
+        assertThat(accepts("1 2 3", "1 3 2")).isFalse();
+        assertThat(accepts("1 2", "1 2 3")).isFalse();
+        assertThat(accepts("1 2 3", "1 2")).isFalse();
+        assertThat(accepts("12", "1 2")).isFalse();
+    }
+
+    @Test
+    void emptyOutput() throws IOException {
+        assertThat(accepts("", "")).isTrue();
+        assertThat(accepts(" \r\n", "\n")).isTrue();
+        assertThat(accepts("", "x")).isFalse();
+        assertThat(accepts("x", " ")).isFalse();
+    }
+
+    @Test
+    void tokensLongerThanTheInitialBuffer() throws IOException {
+        String token = "a".repeat(200);
+        assertThat(accepts(token + " b", token + "\nb")).isTrue();
+        assertThat(accepts(token + "x", token + "y")).isFalse();
+        assertThat(accepts(token, token + "a")).isFalse();
+    }
+
+    @Test
+    void tokenSpanningTheReadBuffer() throws IOException {
+        String token = "9".repeat(100);
+        assertThat(accepts(" ".repeat(8150) + token, token)).isTrue();
+        assertThat(accepts(" ".repeat(8150) + token, token + "9")).isFalse();
+    }
+
+    private boolean accepts(String actual, String expected) throws IOException {
+        return checker.accepts(stream(actual), stream(expected), Question.builder().build());
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
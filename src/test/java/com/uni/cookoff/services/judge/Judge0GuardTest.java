@@ -0,0 +1,39 @@
+package com.uni.cookoff.services.judge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Judge0GuardTest {
+
+    // Anything over 50 ms counts as slow
+    private static final Judge0Guard.Settings SETTINGS =
+            new Judge0Guard.Settings(20, 2, 200, 0.5, 50, 200, 50, 20, 0.5, 10000, 3);
+
+    @Test
+    void slowTimedCallsCutTheLimit() {
+        Judge0Guard guard = new Judge0Guard(SETTINGS);
+
+        guard.call(() -> sleep(100), true);
+
+        assertThat(guard.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void slowUntimedCallsDoNotCutTheLimit() {
+        Judge0Guard guard = new Judge0Guard(SETTINGS);
+
+        guard.call(() -> sleep(100), false);
+
+        assertThat(guard.limit()).isGreaterThan(20);
+    }
+
+    private static Void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.uni.cookoff.services.judge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import com.uni.cookoff.dto.request.JudgeSubmission;
+import com.uni.cookoff.dto.request.JudgeToken;
+import com.uni.cookoff.services.BlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Judge0HttpClientTest {
+
+    @TempDir
+    Path blobs;
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private final AtomicReference<Headers> requestHeaders = new AtomicReference<>();
+    private final AtomicReference<byte[]> requestBody = new AtomicReference<>();
+
+    @BeforeEach
+    void startJudge() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/submissions/batch", exchange -> {
+            requestHeaders.set(exchange.getRequestHeaders());
+            requestBody.set(exchange.getRequestBody().readAllBytes());
+            byte[] response = "[{\"token\":\"t1\"}]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        httpClient = HttpClients.createDefault();
+    }
+
+    @AfterEach
+    void stopJudge() throws IOException {
+        server.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    void blobBackedBatchIsStreamedRatherThanBuffered() throws IOException {
+        BlobStore blobStore = new BlobStore(null, blobs.toString(), 16);
+        byte[] input = "1 2\n".repeat(1 << 20).getBytes(StandardCharsets.UTF_8);
+        String hash = blobStore.put(input);
+
+        List<JudgeToken> tokens = client(blobStore).submitBatch(List.of(JudgeSubmission.builder()
+                .languageId(71)
+                .sourceCode("print(input())")
+                .inputBlob(hash)
+                .build()));
+
+        assertThat(tokens).extracting(JudgeToken::getToken).containsExactly("t1");
+        // A buffered body goes out with its Content-Length; only a streamed one is chunked
+        assertThat(requestHeaders.get().getFirst("Transfer-Encoding")).isEqualToIgnoringCase("chunked");
+        assertThat(requestHeaders.get().getFirst("Content-Length")).isNull();
+        String stdin = new ObjectMapper().readTree(requestBody.get()).at("/submissions/0/stdin").asText();
+        assertThat(stdin.getBytes(StandardCharsets.UTF_8)).isEqualTo(input);
+    }
+
+    private Judge0HttpClient client(BlobStore blobStore) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        Judge0Guard.Settings settings = new Judge0Guard.Settings(20, 2, 200, 0.75, 10000, 200, 50, 20, 0.5, 10000, 3);
+        Judge0NodePool nodePool = new Judge0NodePool(restTemplate, settings, new SimpleMeterRegistry(),
+                new String[]{"http://localhost:" + server.getAddress().getPort()}, 100);
+        return new Judge0HttpClient(restTemplate, new JudgeRequestWriter(blobStore), nodePool);
+    }
+}
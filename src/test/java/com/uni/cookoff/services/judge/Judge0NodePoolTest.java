@@ -0,0 +1,77 @@
+package com.uni.cookoff.services.judge;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Judge0NodePoolTest {
+
+    // One failure opens a circuit, which turns half-open at once and then takes a single probe
+    private static final Judge0Guard.Settings SETTINGS =
+            new Judge0Guard.Settings(20, 2, 200, 0.75, 10000, 200, 50, 1, 0.5, 0, 1);
+
+    private final Judge0NodePool pool = new Judge0NodePool(null, SETTINGS, new SimpleMeterRegistry(),
+            new String[]{"http://judge-a", "http://judge-b"}, 100);
+    private final Judge0Node a = pool.nodes().get(0);
+    private final Judge0Node b = pool.nodes().get(1);
+
+    @Test
+    void halfOpenNodeWithItsProbeTakenIsSkipped() throws InterruptedException {
+        assertThatThrownBy(() -> a.call(Judge0Node.Kind.BATCH, () -> {
+            throw new ResourceAccessException("connection refused");
+        })).isInstanceOf(ResourceAccessException.class);
+        b.probed(false, 0, 1);
+
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Thread probe = Thread.ofVirtual().start(() -> a.call(Judge0Node.Kind.BATCH, () -> {
+            probing.countDown();
+            await(finish);
+            return null;
+        }));
+        probing.await();
+
+        assertThat(a.isRoutable()).isFalse();
+        assertThat(pool.pick(Judge0Node.Kind.BATCH)).isSameAs(b);
+
+        finish.countDown();
+        probe.join();
+
+        // The probe succeeded and closed the circuit, so the healthy node wins again
+        assertThat(pool.pick(Judge0Node.Kind.BATCH)).isSameAs(a);
+    }
+
+    @Test
+    void slowRunsDoNotSkewBatchLatency() {
+        a.call(Judge0Node.Kind.RUN, () -> {
+            sleep(300);
+            return null;
+        });
+
+        assertThat(a.latencyMs(Judge0Node.Kind.RUN)).isGreaterThan(100);
+        assertThat(a.latencyMs(Judge0Node.Kind.BATCH)).isEqualTo(100);
+        assertThat(pool.pick(Judge0Node.Kind.RUN)).isSameAs(b);
+        assertThat(pool.pick(Judge0Node.Kind.BATCH)).isSameAs(a);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.uni.cookoff.services.judge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uni.cookoff.dto.request.BatchSubmissionRequest;
+import com.uni.cookoff.dto.request.JudgeSubmission;
+import com.uni.cookoff.models.Testcase;
+import com.uni.cookoff.services.BlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JudgeRequestWriterTest {
+
+    // Every control character, both characters JSON always escapes, DEL and a slash
+    private static final String CONTROL;
+
+    static {
+        StringBuilder control = new StringBuilder();
+        for (char c = 0; c < 0x20; c++) {
+            control.append(c);
+        }
+        CONTROL = control.append("\"\\\u007f/").toString();
+    }
+
+    // Two-byte, three-byte and four-byte (surrogate pair) UTF-8 sequences
+    private static final String NON_BMP = "\u00e9 \u65e5\u672c \ud83d\ude00 \ud834\udd1e \ud83d\udc4d";
+
+    @TempDir
+    Path blobs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BlobStore blobStore;
+    private JudgeRequestWriter writer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new BlobStore(null, blobs.toString(), 16);
+        writer = new JudgeRequestWriter(blobStore);
+    }
+
+    @Test
+    void controlCharactersAreEscapedLikeJackson() throws IOException {
+        JudgeSubmission submission = submission()
+                .sourceCode("print(\"" + CONTROL + "\")")
+                .input(CONTROL)
+                .output(CONTROL + "\n")
+                .callback("http://cookoff/callback?submissionId=a&testCaseId=\"b\"")
+                .build();
+
+        assertThat(single(submission)).isEqualTo(objectMapper.writeValueAsString(submission));
+    }
+
+    @Test
+    void nonBmpCharactersPassThroughLikeJackson() throws IOException {
+        JudgeSubmission submission = submission()
+                .sourceCode("# " + NON_BMP + "\nprint(input())")
+                .input(NON_BMP)
+                .output(NON_BMP)
+                .build();
+
+        assertThat(single(submission)).isEqualTo(objectMapper.writeValueAsString(submission));
+    }
+
+    @Test
+    void blobBackedFieldsMatchTheInlineJson() throws IOException {
+        // Longer than the escaper's 8 KB chunk, so multi-byte sequences straddle chunk boundaries
+        String input = (CONTROL + NON_BMP).repeat(500);
+        String output = (NON_BMP + "\r\n").repeat(700);
+        JudgeSubmission blobBacked = submission()
+                .sourceCode("print(input())")
+                .inputBlob(blobStore.put(input.getBytes(StandardCharsets.UTF_8)))
+                .outputBlob(blobStore.put(output.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        JudgeSubmission inline = submission()
+                .sourceCode("print(input())")
+                .input(input)
+                .output(output)
+                .build();
+
+        assertThat(single(blobBacked)).isEqualTo(objectMapper.writeValueAsString(inline));
+    }
+
+    @Test
+    void preEncodedStdinMatchesJackson() throws IOException {
+        Testcase testCase = Testcase.builder()
+                .input(CONTROL + NON_BMP)
+                .inputHash(BlobStore.sha256((CONTROL + NON_BMP).getBytes(StandardCharsets.UTF_8)))
+                .build();
+        JudgeSubmission inline = submission().sourceCode("print(1)").input(testCase.getInput()).build();
+        JudgeSubmission preEncoded = submission()
+                .sourceCode("print(1)")
+                .input(testCase.getInput())
+                .encodedPayload(new JudgePayloadCache(1 << 20).fragmentFor(testCase))
+                .build();
+
+        assertThat(single(preEncoded)).isEqualTo(objectMapper.writeValueAsString(inline));
+    }
+
+    @Test
+    void batchesWithSharedAndChangingSourcesMatchJackson() throws IOException {
+        List<JudgeSubmission> submissions = List.of(
+                submission().sourceCode("a = \"" + CONTROL + "\"").input("1").build(),
+                submission().sourceCode("a = \"" + CONTROL + "\"").input(NON_BMP).build(),
+                submission().sourceCode("b = '" + NON_BMP + "'").input("").build(),
+                submission().input("no source").build(),
+                submission().sourceCode("a = \"" + CONTROL + "\"").input("3").build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeBatch(submissions, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(new BatchSubmissionRequest(submissions)));
+    }
+
+    private String single(JudgeSubmission submission) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeSubmission(submission, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static JudgeSubmission.JudgeSubmissionBuilder submission() {
+        return JudgeSubmission.builder()
+                .languageId(71)
+                .runtime(BigDecimal.valueOf(2.5))
+                .memoryLimit(262144);
+    }
+}